@@ -0,0 +1,77 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.services.AuthorService;
+
+/**
+ * Authors created per second, one transaction per author versus one batched transaction for all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorCreationBenchmark {
+    private static final int               AUTHORS = 500;
+
+    private ConfigurableApplicationContext context;
+
+    private AuthorService                  authorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        authorService = context.getBean(AuthorService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AUTHORS)
+    public void single() {
+        for (AuthorEntity author : authors()) {
+            authorService.save(author);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AUTHORS)
+    public List<AuthorEntity> bulk() {
+        return authorService.createAll(authors());
+    }
+
+    private static List<AuthorEntity> authors() {
+        List<AuthorEntity> authors = new ArrayList<>(AUTHORS);
+        for (int i = 0; i < AUTHORS; i++) {
+            authors.add(AuthorEntity.builder()
+                .name("Author " + i)
+                .age(20 + i % 60)
+                .build());
+        }
+        return authors;
+    }
+
+}
@@ -0,0 +1,137 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import dev.xgeorget.database.BooksApiApplication;
+import dev.xgeorget.database.repositories.DatabasePlatform;
+import dev.xgeorget.database.services.impl.BookExistenceFilter;
+
+/**
+ * Boots the application, without a web server unless {@link #startServer} is used, against the in-memory H2 database
+ * of the test classpath, or against Postgres when {@code -Dbenchmark.jdbc-url=jdbc:postgresql://...} is given, whose
+ * schema is then dropped and migrated again. H2 keeps counted B-trees, so OFFSET and COUNT(*) are much cheaper there than on Postgres.
+ */
+public final class BenchmarkContext {
+    public static final int AUTHORS = 100;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(final String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Also starts the embedded web server on a free port, read back from {@code local.server.port}.
+     */
+    public static ConfigurableApplicationContext startServer(final String... properties) {
+        return start(WebApplicationType.SERVLET, properties);
+    }
+
+    private static ConfigurableApplicationContext start(final WebApplicationType webApplicationType,
+        final String... properties) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BooksApiApplication.class)
+            .web(webApplicationType)
+            .properties("spring.main.banner-mode=off", "logging.level.root=WARN", "server.port=0");
+
+        // Arguments, unlike default properties, override the application.properties of the test classpath
+        List<String> args = new ArrayList<>();
+        String jdbcUrl = System.getProperty("benchmark.jdbc-url");
+        if (jdbcUrl != null) {
+            args.addAll(List.of("--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + System.getProperty("benchmark.username", "postgres"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.password", ""),
+                "--spring.datasource.driver-class-name=org.postgresql.Driver", "--books.search.engine=postgres",
+                "--spring.flyway.clean-disabled=false"));
+            // Every run starts from an empty schema, migrated up to spring.flyway.target
+            builder.initializers(context -> context.getBeanFactory()
+                .registerSingleton("flywayMigrationStrategy", (FlywayMigrationStrategy) flyway -> {
+                    flyway.clean();
+                    flyway.migrate();
+                }));
+        }
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return builder.run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Books are numbered from 0, {@link #isbn(int)} sorts in the same order as the numbers.
+     */
+    public static void seedBooks(final ConfigurableApplicationContext context, final int count) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seedAuthors(jdbcTemplate);
+
+        List<Object[]> books = new ArrayList<>(10_000);
+        for (int i = 0; i < count; i++) {
+            books.add(new Object[] { isbn(i), "Title " + i, (long) (i % AUTHORS + 1) });
+            if (books.size() == 10_000 || i == count - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO books (isbn, title, author_id) VALUES (?, ?, ?)", books);
+                books.clear();
+            }
+        }
+        rebuildExistenceFilter(context);
+    }
+
+    /**
+     * Same books as {@link #seedBooks}, generated by Postgres itself in chunks of a million rows, which takes minutes
+     * instead of hours at ten million books and more. Falls back to {@link #seedBooks} on H2.
+     */
+    public static void generateBooks(final ConfigurableApplicationContext context, final int count) {
+        if (!context.getBean(DatabasePlatform.class)
+            .isPostgres()) {
+            seedBooks(context, count);
+            return;
+        }
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seedAuthors(jdbcTemplate);
+        for (int from = 0; from < count; from += 1_000_000) {
+            // Same check digit as isbn(int), the weights of 978 add up to 38
+            jdbcTemplate.update("INSERT INTO books (isbn, title, author_id) "
+                + "SELECT '978-' || d || (10 - (38 + (SELECT sum(substr(d, i, 1)::int * (2 * (i % 2) + 1)) "
+                + "FROM generate_series(1, 9) i)) % 10) % 10, 'Title ' || n, n % ? + 1 "
+                + "FROM (SELECT n, lpad(n::text, 9, '0') AS d FROM generate_series(?, ?) n) g", AUTHORS, from,
+                Math.min(from + 1_000_000, count) - 1);
+        }
+        jdbcTemplate.execute("ANALYZE books");
+        rebuildExistenceFilter(context);
+    }
+
+    // The rows were inserted behind the services, the filter would answer that none of them exist
+    private static void rebuildExistenceFilter(final ConfigurableApplicationContext context) {
+        context.getBeanProvider(BookExistenceFilter.class)
+            .ifAvailable(BookExistenceFilter::rebuild);
+    }
+
+    private static void seedAuthors(final JdbcTemplate jdbcTemplate) {
+        List<Object[]> authors = new ArrayList<>(AUTHORS);
+        for (int i = 1; i <= AUTHORS; i++) {
+            authors.add(new Object[] { (long) i, "Author " + i, 20 + i % 60 });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO authors (id, name, age) VALUES (?, ?, ?)", authors);
+        // Authors created afterwards are numbered after the seeded ones
+        jdbcTemplate.execute("ALTER SEQUENCE author_id_seq RESTART WITH " + (AUTHORS + 1));
+    }
+
+    /**
+     * A valid ISBN-13, 978 followed by the number on nine digits and the check digit.
+     */
+    public static String isbn(final int number) {
+        String digits = String.format("978%09d", number);
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return "978-" + digits.substring(3) + (10 - sum % 10) % 10;
+    }
+
+}
@@ -0,0 +1,76 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.dto.BookViewDto;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.mappers.Mapper;
+import dev.xgeorget.database.services.BookService;
+
+/**
+ * Cost of one listing page read as managed entities then mapped, against the constructor projection. Run with
+ * {@code -prof gc} to compare the bytes allocated per page, reported as gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookListingBenchmark {
+    private static final int               BOOKS = 10_000;
+
+    @Param({ "20", "1000" })
+    private int                            pageSize;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService                    bookService;
+
+    private Mapper<BookEntity, BookDto>    bookMapper;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedBooks(context, BOOKS);
+        bookService = context.getBean(BookService.class);
+        bookMapper = context.getBean("bookMapper", Mapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookDto> entities() {
+        return bookService.findAfter("", pageSize)
+            .stream()
+            .map(bookMapper::mapTo)
+            .toList();
+    }
+
+    @Benchmark
+    public List<BookViewDto> projection() {
+        return bookService.findViewsAfter("", pageSize);
+    }
+
+}
@@ -0,0 +1,74 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.services.BookService;
+
+/**
+ * Latency of fetching one page at increasing depth, OFFSET paging grows with the depth while the keyset seek
+ * should stay flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookPagingBenchmark {
+    private static final int               BOOKS     = 1_000_000;
+
+    private static final int               PAGE_SIZE = 20;
+
+    @Param({ "0", "10000", "100000", "999980" })
+    private int                            depth;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService                    bookService;
+
+    private String                         afterIsbn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedBooks(context, BOOKS);
+        bookService = context.getBean(BookService.class);
+        afterIsbn = depth == 0 ? "" : BenchmarkContext.isbn(depth - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BookEntity> offset() {
+        return bookService.findAll(PageRequest.of(depth / PAGE_SIZE, PAGE_SIZE, Sort.by("isbn")));
+    }
+
+    @Benchmark
+    public List<BookEntity> keyset() {
+        return bookService.findAfter(afterIsbn, PAGE_SIZE);
+    }
+
+}
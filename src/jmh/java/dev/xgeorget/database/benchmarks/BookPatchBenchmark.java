@@ -0,0 +1,83 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.repositories.BookRepository;
+import dev.xgeorget.database.services.BookService;
+
+/**
+ * PATCH of a book title as the existence check, load and save it used to be, against the single
+ * {@code UPDATE ... RETURNING} of {@link BookService#partialUpdate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookPatchBenchmark {
+    private static final int               BOOKS = 1_000;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService                    bookService;
+
+    private BookRepository                 bookRepository;
+
+    private TransactionTemplate            transactionTemplate;
+
+    private int                            next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedBooks(context, BOOKS);
+        bookService = context.getBean(BookService.class);
+        bookRepository = context.getBean(BookRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<BookEntity> loadThenSave() {
+        String isbn = BenchmarkContext.isbn(next++ % BOOKS);
+        if (!bookService.isExists(isbn)) {
+            return Optional.empty();
+        }
+        return transactionTemplate.execute(status -> bookRepository.findById(isbn)
+            .map(existing -> {
+                existing.setTitle("Patched " + next);
+                return bookRepository.save(existing);
+            }));
+    }
+
+    @Benchmark
+    public Optional<BookEntity> singleStatement() {
+        String isbn = BenchmarkContext.isbn(next++ % BOOKS);
+        return bookService.partialUpdate(isbn, BookEntity.builder()
+            .title("Patched " + next)
+            .build(), null);
+    }
+
+}
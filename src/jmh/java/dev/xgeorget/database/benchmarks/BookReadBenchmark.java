@@ -0,0 +1,91 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.xgeorget.database.controllers.BookController;
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.mappers.Mapper;
+import dev.xgeorget.database.services.BookService;
+
+/**
+ * Time per GET /books/{isbn} over a hot set of books, rebuilding the JSON on every call versus serving the cached
+ * bytes. The in-memory database never blocks, so the average time per call is the CPU spent on it. Add
+ * {@code -prof gc} to the arguments for the allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BookReadBenchmark {
+    private static final int               BOOKS = 10_000;
+
+    private static final int               HOT   = 1_000;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService                    bookService;
+
+    private Mapper<BookEntity, BookDto>    bookMapper;
+
+    private ObjectMapper                   objectMapper;
+
+    private BookController                 bookController;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedBooks(context, BOOKS);
+        bookService = context.getBean(BookService.class);
+        bookMapper = context.getBean("bookMapper", Mapper.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        bookController = context.getBean(BookController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] rebuilt() throws Exception {
+        // What getBook did before the response cache, short of the ETag
+        BookDto bookDto = bookMapper.mapTo(bookService.findByIsbn(hotIsbn())
+            .orElseThrow());
+        return objectMapper.writeValueAsBytes(bookDto);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> cached() {
+        return bookController.getBook(hotIsbn());
+    }
+
+    private static String hotIsbn() {
+        return BenchmarkContext.isbn(ThreadLocalRandom.current()
+            .nextInt(HOT));
+    }
+
+}
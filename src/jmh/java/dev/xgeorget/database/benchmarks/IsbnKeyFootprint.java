@@ -0,0 +1,99 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import dev.xgeorget.database.utils.Isbn;
+import dev.xgeorget.database.utils.LongLongHashMap;
+
+/**
+ * Memory retained by an index from ISBN to a long, keyed on the ISBN strings in a {@link HashMap} versus on packed
+ * ISBNs in a {@link LongLongHashMap} on and off the heap. Not a JMH benchmark, the heap is measured after a full
+ * collection once each map is built. 50 million String keys need a heap of about 6 GB:
+ *
+ * <pre>
+ * JAVA_TOOL_OPTIONS=-Xmx10g mvn -Pjmh test-compile exec:exec \
+ *     -Djmh.main=dev.xgeorget.database.benchmarks.IsbnKeyFootprint \
+ *     -Djmh.args="entries=50000000 maps=string,heap,off-heap"
+ * </pre>
+ */
+public final class IsbnKeyFootprint {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private IsbnKeyFootprint() {
+    }
+
+    public static void main(final String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int entries = Integer.parseInt(options.getOrDefault("entries", "50000000"));
+
+        for (String map : options.getOrDefault("maps", "string,heap,off-heap")
+            .split(",")) {
+            measure(map, entries);
+        }
+    }
+
+    // One call per map, so that the previous one is unreachable once it returns
+    private static void measure(final String map, final int entries) {
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+        long started = System.nanoTime();
+        Object index = switch (map) {
+            case "string" -> stringKeyed(entries);
+            case "heap" -> longKeyed(entries, false);
+            case "off-heap" -> longKeyed(entries, true);
+            default -> throw new IllegalArgumentException("Unknown map " + map);
+        };
+        long builtNanos = System.nanoTime() - started;
+        long heap = usedHeap() - heapBefore;
+        long direct = usedDirect() - directBefore;
+        Reference.reachabilityFence(index);
+
+        System.out.printf("%-8s %,d entries in %,d ms: heap %,d MB (%.1f B/entry), direct %,d MB (%.1f B/entry)%n", map,
+            entries, builtNanos / 1_000_000, heap >> 20, (double) heap / entries, direct >> 20,
+            (double) direct / entries);
+    }
+
+    private static Map<String, Long> stringKeyed(final int entries) {
+        Map<String, Long> index = new HashMap<>((int) (entries / 0.75f) + 1);
+        for (int i = 0; i < entries; i++) {
+            index.put(BenchmarkContext.isbn(i), (long) i);
+        }
+        return index;
+    }
+
+    private static LongLongHashMap longKeyed(final int entries, final boolean offHeap) {
+        LongLongHashMap index = new LongLongHashMap(entries, offHeap);
+        for (int i = 0; i < entries; i++) {
+            index.put(Isbn.pack(BenchmarkContext.isbn(i)), i);
+        }
+        return index;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage()
+            .getUsed();
+    }
+
+    private static long usedDirect() {
+        List<BufferPoolMXBean> pools = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+        return pools.stream()
+            .filter(pool -> pool.getName()
+                .equals("direct"))
+            .mapToLong(BufferPoolMXBean::getMemoryUsed)
+            .sum();
+    }
+
+}
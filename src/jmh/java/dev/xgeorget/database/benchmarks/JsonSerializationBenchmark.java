@@ -0,0 +1,79 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import dev.xgeorget.database.domain.dto.AuthorDto;
+import dev.xgeorget.database.domain.dto.BookDto;
+
+/**
+ * Cost of writing a page of {@link BookDto} and of {@link AuthorDto} to JSON bytes, with an ObjectMapper configured
+ * like the one Spring Boot gives the message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({ "20", "1000" })
+    private int             pageSize;
+
+    private ObjectWriter    writer;
+
+    private List<BookDto>   books;
+
+    private List<AuthorDto> authors;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+            .build()
+            .writer();
+
+        books = new ArrayList<>(pageSize);
+        authors = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            AuthorDto author = AuthorDto.builder()
+                .id((long) i)
+                .name("Author " + i)
+                .age(20 + i % 60)
+                .build();
+            authors.add(author);
+            books.add(BookDto.builder()
+                .isbn(BenchmarkContext.isbn(i))
+                .title("Title " + i)
+                .author(author)
+                .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] bookPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] authorPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(authors);
+    }
+
+}
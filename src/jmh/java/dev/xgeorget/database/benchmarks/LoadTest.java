@@ -0,0 +1,308 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import dev.xgeorget.database.services.impl.InMemoryBookSearchService;
+import dev.xgeorget.database.utils.CursorUtil;
+
+/**
+ * Closed-loop HTTP load over the book and author endpoints, every client sends its next request as soon as the
+ * previous one has answered. A request is a write with probability {@code writes}, each read and each write endpoint
+ * is then equally likely. Without {@code url} the application is started in this JVM on a free port against H2 and
+ * seeded like the benchmarks, so two commits can be compared on the same machine:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=dev.xgeorget.database.benchmarks.LoadTest \
+ *     -Djmh.args="clients=200 duration=60 warmup=15 writes=0.1 report=target/load-test.json"
+ * </pre>
+ *
+ * The throughput and the latency percentiles, overall and per endpoint, are printed and written to {@code report} as
+ * JSON with a fixed key order, so the reports of two commits can be diffed. Given a {@code url}, for instance to
+ * compare a platform-thread and a virtual-thread start of the jar, the database behind it must hold the books and
+ * authors of {@link BenchmarkContext#seedBooks}, and the load generator should run on another machine than the
+ * service, otherwise both compete for the same cores.
+ */
+public final class LoadTest {
+    private record Operation(String name, boolean write, Function<SplittableRandom, HttpRequest> request) {
+    }
+
+    private static final int BOOKS = 10_000;
+
+    private LoadTest() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        long measuredNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")))
+            .toNanos();
+        long warmupNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "15")))
+            .toNanos();
+        double writes = Double.parseDouble(options.getOrDefault("writes", "0.1"));
+        File report = new File(options.getOrDefault("report", "target/load-test.json"));
+
+        ConfigurableApplicationContext context = null;
+        String url = options.get("url");
+        if (url == null) {
+            context = BenchmarkContext.startServer();
+            BenchmarkContext.seedBooks(context, BOOKS);
+            // The seed bypasses the services, the in-memory title index has to be built again
+            context.getBeanProvider(InMemoryBookSearchService.class)
+                .ifAvailable(InMemoryBookSearchService::rebuild);
+            url = "http://localhost:" + context.getEnvironment()
+                .getProperty("local.server.port");
+        }
+
+        try {
+            List<Operation> operations = operations(URI.create(url));
+            HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+            long start = System.nanoTime();
+            long measureFrom = start + warmupNanos;
+            long measureUntil = measureFrom + measuredNanos;
+            Client[] runs = new Client[clients];
+            CompletableFuture<?>[] done = new CompletableFuture<?>[clients];
+            for (int i = 0; i < clients; i++) {
+                runs[i] = new Client(httpClient, operations, writes, new SplittableRandom(i), measureFrom,
+                    measureUntil);
+                done[i] = runs[i].start();
+            }
+            CompletableFuture.allOf(done)
+                .join();
+
+            double seconds = measuredNanos / 1e9;
+            Map<String, Object> results = new LinkedHashMap<>();
+            results.put("clients", clients);
+            results.put("durationSeconds", seconds);
+            results.put("writes", writes);
+            results.put("total", summary(runs, -1, seconds));
+            Map<String, Object> byOperation = new LinkedHashMap<>();
+            for (int i = 0; i < operations.size(); i++) {
+                byOperation.put(operations.get(i)
+                    .name(), summary(runs, i, seconds));
+            }
+            results.put("operations", byOperation);
+
+            ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            System.out.println(objectMapper.writeValueAsString(results));
+            report.getAbsoluteFile()
+                .getParentFile()
+                .mkdirs();
+            objectMapper.writeValue(report, results);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static List<Operation> operations(final URI base) {
+        return List.of(new Operation("GET /books/{isbn}", false, random -> get(base, "/books/" + isbn(random))),
+            new Operation("GET /books?page", false,
+                random -> get(base, "/books?size=20&page=" + random.nextInt(BOOKS / 20))),
+            new Operation("GET /books?after", false,
+                random -> get(base, "/books?size=20&after=" + CursorUtil.encode(isbn(random)))),
+            new Operation("GET /books/search", false, random -> get(base,
+                "/books/search?q=" + URLEncoder.encode("title " + random.nextInt(BOOKS), StandardCharsets.UTF_8))),
+            new Operation("GET /authors/{id}", false, random -> get(base, "/authors/" + authorId(random))),
+            new Operation("GET /authors?page", false,
+                random -> get(base, "/authors?size=20&page=" + random.nextInt(BenchmarkContext.AUTHORS / 20))),
+            new Operation("GET /authors/{id}/books", false,
+                random -> get(base, "/authors/" + authorId(random) + "/books")),
+            new Operation("PUT /books/{isbn}", true, random -> {
+                String isbn = isbn(random);
+                return send(base, "PUT", "/books/" + isbn, String.format(
+                    "{\"isbn\":\"%s\",\"title\":\"Title %d\",\"author\":{\"id\":%d}}", isbn, random.nextInt(BOOKS),
+                    authorId(random)));
+            }),
+            new Operation("PATCH /books/{isbn}", true, random -> send(base, "PATCH", "/books/" + isbn(random),
+                "{\"title\":\"Patched " + random.nextInt(BOOKS) + "\"}")),
+            new Operation("PATCH /authors/{id}", true, random -> send(base, "PATCH", "/authors/" + authorId(random),
+                "{\"age\":" + (20 + random.nextInt(60)) + "}")),
+            new Operation("POST /authors", true, random -> send(base, "POST", "/authors",
+                "{\"name\":\"Load " + random.nextInt() + "\",\"age\":" + (20 + random.nextInt(60)) + "}")));
+    }
+
+    private static String isbn(final SplittableRandom random) {
+        return BenchmarkContext.isbn(random.nextInt(BOOKS));
+    }
+
+    private static long authorId(final SplittableRandom random) {
+        return random.nextInt(BenchmarkContext.AUTHORS) + 1;
+    }
+
+    private static HttpRequest get(final URI base, final String path) {
+        return HttpRequest.newBuilder(base.resolve(path))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+    }
+
+    private static HttpRequest send(final URI base, final String method, final String path, final String json) {
+        return HttpRequest.newBuilder(base.resolve(path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    // Operation -1 stands for all of them
+    private static Map<String, Object> summary(final Client[] runs, final int operation, final double seconds) {
+        long[] latencies = Arrays.stream(runs)
+            .flatMapToLong(client -> client.latencies(operation))
+            .sorted()
+            .toArray();
+        long errors = Arrays.stream(runs)
+            .mapToLong(client -> client.errors(operation))
+            .sum();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", latencies.length);
+        summary.put("errors", errors);
+        summary.put("throughput", Math.round(latencies.length / seconds * 10) / 10.0);
+        summary.put("p50Millis", percentile(latencies, 0.50));
+        summary.put("p90Millis", percentile(latencies, 0.90));
+        summary.put("p99Millis", percentile(latencies, 0.99));
+        summary.put("p999Millis", percentile(latencies, 0.999));
+        summary.put("maxMillis", percentile(latencies, 1.0));
+        return summary;
+    }
+
+    private static double percentile(final long[] sortedNanos, final double quantile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return Math.round(sortedNanos[Math.max(index, 0)] / 1e3) / 1e3;
+    }
+
+    // Only one request of a client is in flight at a time, so its samples need no synchronization
+    private static final class Client {
+        private final HttpClient              httpClient;
+
+        private final List<Operation>         operations;
+
+        private final List<Integer>           reads;
+
+        private final List<Integer>           writes;
+
+        private final double                  writeRatio;
+
+        private final SplittableRandom        random;
+
+        private final long                    measureFrom;
+
+        private final long                    measureUntil;
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private final long[][]                latencies;
+
+        private final int[]                   counts;
+
+        private final long[]                  errors;
+
+        private Client(final HttpClient httpClient, final List<Operation> operations, final double writeRatio,
+            final SplittableRandom random, final long measureFrom, final long measureUntil) {
+            this.httpClient = httpClient;
+            this.operations = operations;
+            this.reads = indexes(operations, false);
+            this.writes = indexes(operations, true);
+            this.writeRatio = writeRatio;
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.latencies = new long[operations.size()][256];
+            this.counts = new int[operations.size()];
+            this.errors = new long[operations.size()];
+        }
+
+        private static List<Integer> indexes(final List<Operation> operations, final boolean write) {
+            return IntStream.range(0, operations.size())
+                .filter(i -> operations.get(i)
+                    .write() == write)
+                .boxed()
+                .toList();
+        }
+
+        private CompletableFuture<Void> start() {
+            send();
+            return done;
+        }
+
+        private void send() {
+            long sent = System.nanoTime();
+            if (sent >= measureUntil) {
+                done.complete(null);
+                return;
+            }
+            List<Integer> candidates = random.nextDouble() < writeRatio ? writes : reads;
+            int operation = candidates.get(random.nextInt(candidates.size()));
+            httpClient.sendAsync(operations.get(operation)
+                .request()
+                .apply(random), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long received = System.nanoTime();
+                    if (sent >= measureFrom && received < measureUntil) {
+                        if (failure != null || response.statusCode() >= 400) {
+                            errors[operation]++;
+                        } else {
+                            record(operation, received - sent);
+                        }
+                    }
+                    send();
+                });
+        }
+
+        private void record(final int operation, final long nanos) {
+            if (counts[operation] == latencies[operation].length) {
+                latencies[operation] = Arrays.copyOf(latencies[operation], counts[operation] * 2);
+            }
+            latencies[operation][counts[operation]++] = nanos;
+        }
+
+        private LongStream latencies(final int operation) {
+            if (operation >= 0) {
+                return Arrays.stream(latencies[operation], 0, counts[operation]);
+            }
+            return IntStream.range(0, counts.length)
+                .boxed()
+                .flatMapToLong(this::latencies);
+        }
+
+        private long errors(final int operation) {
+            return operation >= 0 ? errors[operation] : Arrays.stream(errors)
+                .sum();
+        }
+    }
+
+}
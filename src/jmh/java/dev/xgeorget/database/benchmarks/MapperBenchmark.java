@@ -0,0 +1,97 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.xgeorget.database.config.MapperConfig;
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.mappers.Mapper;
+import dev.xgeorget.database.mappers.generated.GeneratedBookMapper;
+import dev.xgeorget.database.mappers.impl.BookMapperImpl;
+
+/**
+ * Compares the reflective ModelMapper implementation with the generated one, for a single book and for a
+ * {@code /books} page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({ "modelmapper", "generated" })
+    private String                      implementation;
+
+    @Param({ "1000" })
+    private int                         pageSize;
+
+    private Mapper<BookEntity, BookDto> bookMapper;
+
+    private BookEntity                  book;
+
+    private BookDto                     bookDto;
+
+    private List<BookEntity>            page;
+
+    @Setup
+    public void setUp() {
+        if ("modelmapper".equals(implementation)) {
+            bookMapper = new BookMapperImpl(new MapperConfig().modelMapper());
+        } else {
+            bookMapper = Mappers.getMapper(GeneratedBookMapper.class);
+        }
+
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            AuthorEntity author = AuthorEntity.builder()
+                .id((long) (i % 50))
+                .name("Author " + (i % 50))
+                .age(30 + i % 50)
+                .build();
+            page.add(BookEntity.builder()
+                .isbn(String.format("978-0-%09d", i))
+                .title("Title " + i)
+                .author(author)
+                .build());
+        }
+        book = page.get(0);
+        bookDto = bookMapper.mapTo(book);
+    }
+
+    @Benchmark
+    public BookDto mapToSingle() {
+        return bookMapper.mapTo(book);
+    }
+
+    @Benchmark
+    public BookEntity mapFromSingle() {
+        return bookMapper.mapFrom(bookDto);
+    }
+
+    @Benchmark
+    public List<BookDto> mapToPage() {
+        List<BookDto> dtos = new ArrayList<>(page.size());
+        for (BookEntity bookEntity : page) {
+            dtos.add(bookMapper.mapTo(bookEntity));
+        }
+        return dtos;
+    }
+
+}
@@ -0,0 +1,103 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import dev.xgeorget.database.domain.dto.AuthorBookDto;
+import dev.xgeorget.database.domain.dto.BookViewDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.services.BookService;
+
+/**
+ * ISBN lookups and keyset pages on the plain books table of migration 5 against the hash-partitioned one of migration
+ * 6, with random ISBNs so that the second-level cache does not answer. Only meaningful on Postgres, which generates
+ * the rows itself:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PartitionedBookBenchmark \
+ *     -jvmArgsAppend -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/books"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PartitionedBookBenchmark {
+    private static final int               PAGE_SIZE = 20;
+
+    @Param({ "10000000" })
+    private int                            books;
+
+    @Param({ "5", "latest" })
+    private String                         flywayTarget;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService                    bookService;
+
+    private SplittableRandom               random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.flyway.target=" + flywayTarget);
+        BenchmarkContext.generateBooks(context, books);
+        bookService = context.getBean(BookService.class);
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return bookService.isExists(randomIsbn());
+    }
+
+    @Benchmark
+    public List<BookViewDto> keyset() {
+        return bookService.findViewsAfter(randomIsbn(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<AuthorBookDto> byAuthor() {
+        return bookService.findByAuthorAfter(random.nextInt(BenchmarkContext.AUTHORS) + 1L, randomIsbn(), PAGE_SIZE);
+    }
+
+    // The book is written back as it was, the ON CONFLICT arbiter is the primary key of a single partition
+    @Benchmark
+    public boolean upsert() {
+        int number = random.nextInt(books);
+        return bookService.upsert(BenchmarkContext.isbn(number), BookEntity.builder()
+            .title("Title " + number)
+            .author(AuthorEntity.builder()
+                .id(number % BenchmarkContext.AUTHORS + 1L)
+                .build())
+            .build());
+    }
+
+    private String randomIsbn() {
+        return BenchmarkContext.isbn(random.nextInt(books));
+    }
+
+}
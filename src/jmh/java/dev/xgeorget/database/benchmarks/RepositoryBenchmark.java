@@ -0,0 +1,87 @@
+package dev.xgeorget.database.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import dev.xgeorget.database.domain.dto.AuthorBookDto;
+import dev.xgeorget.database.domain.dto.AuthorViewDto;
+import dev.xgeorget.database.domain.dto.BookViewDto;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.repositories.AuthorRepository;
+import dev.xgeorget.database.repositories.BookRepository;
+
+/**
+ * Time per repository call against the seeded database, without the services, mappers or Jackson on top. Lookups
+ * by id are answered by the second-level cache once it is warm, the queries always reach the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    private static final int               BOOKS = 10_000;
+
+    private static final Pageable          PAGE  = PageRequest.ofSize(20);
+
+    private ConfigurableApplicationContext context;
+
+    private BookRepository                 bookRepository;
+
+    private AuthorRepository               authorRepository;
+
+    private int                            next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedBooks(context, BOOKS);
+        bookRepository = context.getBean(BookRepository.class);
+        authorRepository = context.getBean(AuthorRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<BookEntity> findBookById() {
+        return bookRepository.findById(BenchmarkContext.isbn(next++ % BOOKS));
+    }
+
+    @Benchmark
+    public List<BookViewDto> findViewsAfter() {
+        return bookRepository.findViewsAfter(BenchmarkContext.isbn(next++ % BOOKS), PAGE);
+    }
+
+    @Benchmark
+    public List<AuthorBookDto> findByAuthorAfter() {
+        return bookRepository.findByAuthorAfter((long) (next++ % BenchmarkContext.AUTHORS + 1), "", PAGE);
+    }
+
+    @Benchmark
+    public Page<AuthorViewDto> findAuthorViews() {
+        return authorRepository.findAllViews(PageRequest.of(next++ % 5, 20));
+    }
+
+}
@@ -0,0 +1,59 @@
+package dev.xgeorget.database.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Second-level cache regions for the entities, backed by Caffeine through JCache.
+ */
+@Configuration
+public class CacheConfig {
+    public static final String BOOKS   = "books";
+
+    public static final String AUTHORS = "authors";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${books.cache.ttl:10m}") Duration ttl,
+        @Value("${books.cache.max-size:10000}") long maxSize) {
+        // Each application context gets its own manager, closing one must not close the caches of another
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("books-api-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        // Hibernate already stores disassembled state, copying it on every get would be wasted work
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(BOOKS, configuration);
+        cacheManager.createCache(AUTHORS, configuration);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    // Exposes the regions to the caches endpoint and to the cache.gets / cache.puts metrics
+    @Bean
+    public JCacheCacheManager cacheManager(CacheManager entityCacheManager) {
+        return new JCacheCacheManager(entityCacheManager);
+    }
+
+}
@@ -0,0 +1,32 @@
+package dev.xgeorget.database.config;
+
+import org.mapstruct.factory.Mappers;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import dev.xgeorget.database.domain.dto.AuthorDto;
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.mappers.Mapper;
+import dev.xgeorget.database.mappers.generated.GeneratedAuthorMapper;
+import dev.xgeorget.database.mappers.generated.GeneratedBookMapper;
+
+/**
+ * Registers the generated mappers, set {@code books.mapper=modelmapper} to fall back to the reflective ones.
+ */
+@Configuration
+@ConditionalOnProperty(name = "books.mapper", havingValue = "generated", matchIfMissing = true)
+public class GeneratedMapperConfig {
+    @Bean
+    public Mapper<AuthorEntity, AuthorDto> authorMapper() {
+        return Mappers.getMapper(GeneratedAuthorMapper.class);
+    }
+
+    @Bean
+    public Mapper<BookEntity, BookDto> bookMapper() {
+        return Mappers.getMapper(GeneratedBookMapper.class);
+    }
+
+}
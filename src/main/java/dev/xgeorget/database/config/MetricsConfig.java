@@ -0,0 +1,60 @@
+package dev.xgeorget.database.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import dev.xgeorget.database.metrics.LayerTimingAspect;
+import dev.xgeorget.database.metrics.SqlStatementCounter;
+import dev.xgeorget.database.metrics.StatementCountingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per layer timings and SQL statement counts, next to the request, repository, Hibernate and HikariCP metrics Spring
+ * Boot already binds. {@code books.metrics.sample-rate} sets the fraction of the calls that are measured.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public LayerTimingAspect layerTimingAspect(MeterRegistry registry,
+        @Value("${books.metrics.sample-rate:1.0}") double sampleRate) {
+        return new LayerTimingAspect(registry, sampleRate);
+    }
+
+    @Configuration
+    @Profile("!reactive")
+    static class SqlStatementMetricsConfig implements WebMvcConfigurer {
+        private SqlStatementCounter sqlStatementCounter;
+
+        SqlStatementMetricsConfig(MeterRegistry registry,
+            @Value("${books.metrics.sample-rate:1.0}") double sampleRate) {
+            this.sqlStatementCounter = new SqlStatementCounter(registry, sampleRate);
+        }
+
+        // Only the DataSource the application uses, with replicas the pools behind it would count twice
+        @Bean
+        public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? new StatementCountingDataSource(dataSource)
+                        : bean;
+                }
+            };
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(sqlStatementCounter);
+        }
+
+    }
+
+}
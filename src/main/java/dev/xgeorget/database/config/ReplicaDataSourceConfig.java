@@ -0,0 +1,91 @@
+package dev.xgeorget.database.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import dev.xgeorget.database.datasource.PrimaryStickinessFilter;
+import dev.xgeorget.database.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-only transactions go to the replicas of {@code books.datasource.replicas}, a comma-separated list of JDBC URLs
+ * reached with the credentials and pool settings of {@code spring.datasource}. Without it the single DataSource of
+ * Spring Boot is left alone.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "books.datasource.replicas")
+public class ReplicaDataSourceConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+        @Value("${books.datasource.replicas}") List<String> urls,
+        @Value("${books.datasource.replica-connection-timeout:1s}") Duration connectionTimeout,
+        @Value("${books.datasource.replica-retry-after:10s}") Duration retryAfter,
+        ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(urls.get(i));
+            config.setPoolName("replica-" + (i + 1));
+            // A replica that is down must neither stop the start nor hold a read for the primary's whole timeout
+            config.setInitializationFailTimeout(-1);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(
+                new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, retryAfter);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // Under open-in-view a held connection would serve every later transaction of the request, reads or writes
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public PrimaryStickinessFilter primaryStickinessFilter(
+        @Value("${books.datasource.sticky-window:5s}") Duration window) {
+        return new PrimaryStickinessFilter(window);
+    }
+
+}
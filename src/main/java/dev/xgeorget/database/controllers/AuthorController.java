@@ -4,7 +4,12 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,22 +18,48 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.xgeorget.database.domain.dto.AuthorBookDto;
 import dev.xgeorget.database.domain.dto.AuthorDto;
+import dev.xgeorget.database.domain.dto.AuthorViewDto;
+import dev.xgeorget.database.domain.dto.CursorPageDto;
 import dev.xgeorget.database.domain.entities.AuthorEntity;
 import dev.xgeorget.database.mappers.Mapper;
 import dev.xgeorget.database.services.AuthorService;
+import dev.xgeorget.database.services.BookService;
+import dev.xgeorget.database.utils.CursorUtil;
+import dev.xgeorget.database.utils.NdjsonWriter;
+import dev.xgeorget.database.utils.PreconditionFailedException;
+import dev.xgeorget.database.utils.VersionTag;
 
 @RestController
+@Profile("!reactive")
 public class AuthorController {
-    private AuthorService authorService;
+    private static final int                MAX_PAGE_SIZE = 1000;
+
+    private AuthorService                   authorService;
+
+    private BookService                     bookService;
 
     private Mapper<AuthorEntity, AuthorDto> authorMapper;
 
-    public AuthorController(AuthorService authorService, Mapper<AuthorEntity, AuthorDto> authorMapper) {
+    private ObjectMapper                    objectMapper;
+
+    private JsonResponseCache               responseCache;
+
+    public AuthorController(AuthorService authorService, BookService bookService,
+        Mapper<AuthorEntity, AuthorDto> authorMapper, ObjectMapper objectMapper, JsonResponseCache responseCache) {
         this.authorService = authorService;
+        this.bookService = bookService;
         this.authorMapper = authorMapper;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
     }
 
     @PostMapping(path = "/authors")
@@ -38,52 +69,113 @@ public class AuthorController {
         return new ResponseEntity<>(authorMapper.mapTo(savedAuthorEntity), HttpStatus.CREATED);
     }
 
-    @GetMapping(path = "/authors")
-    public List<AuthorDto> listAuthors() {
-        List<AuthorEntity> authors = authorService.findAll();
-        return authors.stream()
-                .map(authorMapper::mapTo)
+    @PostMapping(path = "/authors/_bulk")
+    public ResponseEntity<List<AuthorDto>> createAuthors(@RequestBody List<AuthorDto> authors) {
+        List<AuthorEntity> authorEntities = authors.stream()
+                .map(authorMapper::mapFrom)
                 .collect(Collectors.toList());
+        List<AuthorEntity> savedAuthorEntities = authorService.createAll(authorEntities);
+        return new ResponseEntity<>(savedAuthorEntities.stream()
+                .map(authorMapper::mapTo)
+                .collect(Collectors.toList()), HttpStatus.CREATED);
+    }
 
+    @GetMapping(path = "/authors")
+    public Page<AuthorViewDto> listAuthors(Pageable pageable) {
+        return authorService.findAllViews(pageable);
     }
 
-    @GetMapping(path = "/authors/{id}")
-    public ResponseEntity<AuthorDto> getAuthor(@PathVariable("id") Long id) {
-        Optional<AuthorEntity> foundAuthor = authorService.findById(id);
-        return foundAuthor.map(authorEntity -> {
-            AuthorDto authorDto = authorMapper.mapTo(authorEntity);
-            return new ResponseEntity<>(authorDto, HttpStatus.OK);
-        })
-                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    @GetMapping(path = "/authors/export")
+    public ResponseEntity<StreamingResponseBody> exportAuthors() {
+        StreamingResponseBody body = outputStream -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+                authorService.streamAll(author -> writer.write(authorMapper.mapTo(author)));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 
+    @GetMapping(path = "/authors/{id}")
+    public ResponseEntity<byte[]> getAuthor(@PathVariable("id") Long id) {
+        return responseCache.get(JsonResponseCache.AUTHORS, id, () -> authorService.findById(id),
+                authorMapper::mapTo, author -> VersionTag.of(author.getVersion()));
     }
 
-    @PutMapping(path = "/authors/{id}")
-    public ResponseEntity<AuthorDto> fullUpdateAuthor(@RequestBody AuthorDto authorDto, @PathVariable("id") Long id) {
+    @GetMapping(path = "/authors/{id}/books")
+    public ResponseEntity<CursorPageDto<AuthorBookDto>> listAuthorBooks(@PathVariable("id") Long id,
+        @RequestParam(name = "after", required = false) String after,
+        @RequestParam(name = "size", defaultValue = "20") int size) {
+        String afterIsbn;
+        try {
+            afterIsbn = CursorUtil.decode(after);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
         if (!authorService.isExists(id)) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        authorDto.setId(id);
-        AuthorEntity authorEntity = authorMapper.mapFrom(authorDto);
-        AuthorEntity savedAuthorEntity = authorService.save(authorEntity);
-        return new ResponseEntity<>(authorMapper.mapTo(savedAuthorEntity), HttpStatus.OK);
-    }
 
-    @PatchMapping(path = "/authors/{id}")
-    public ResponseEntity<AuthorDto> partialUpdate(@RequestBody AuthorDto authorDto, @PathVariable("id") Long id) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells whether there is a next page without counting
+        List<AuthorBookDto> books = bookService.findByAuthorAfter(id, afterIsbn, limit + 1);
+        boolean hasNext = books.size() > limit;
+        List<AuthorBookDto> content = hasNext ? books.subList(0, limit) : books;
+        String nextCursor = hasNext ? CursorUtil.encode(content.get(limit - 1)
+                .isbn()) : null;
 
-        if (!authorService.isExists(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(new CursorPageDto<>(content, content.size(), nextCursor), HttpStatus.OK);
+    }
+
+    @PutMapping(path = "/authors/{id}")
+    public ResponseEntity<AuthorDto> fullUpdateAuthor(@RequestBody AuthorDto authorDto, @PathVariable("id") Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AuthorEntity authorEntity = authorMapper.mapFrom(authorDto);
+        try {
+            Optional<AuthorEntity> updatedAuthorEntity = authorService.update(id, authorEntity,
+                    VersionTag.parse(ifMatch)
+                            .orElse(null));
+            responseCache.evictAuthor(id);
+            return updatedAuthorEntity.map(this::withETag)
+                    .orElseGet(() -> missing(ifMatch));
+        } catch (PreconditionFailedException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
         }
+    }
 
+    @PatchMapping(path = "/authors/{id}")
+    public ResponseEntity<AuthorDto> partialUpdate(@RequestBody AuthorDto authorDto, @PathVariable("id") Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         AuthorEntity authorEntity = authorMapper.mapFrom(authorDto);
-        AuthorEntity updateAuthor = authorService.partialUpdate(id, authorEntity);
-        return new ResponseEntity<>(authorMapper.mapTo(updateAuthor), HttpStatus.OK);
+        try {
+            // The UPDATE tells a missing author by the rows it returns, there is no existence check up front
+            Optional<AuthorEntity> updateAuthor = authorService.partialUpdate(id, authorEntity,
+                    VersionTag.parse(ifMatch)
+                            .orElse(null));
+            responseCache.evictAuthor(id);
+            return updateAuthor.map(this::withETag)
+                    .orElseGet(() -> missing(ifMatch));
+        } catch (PreconditionFailedException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
     }
 
     @DeleteMapping(path = "/authors/{id}")
     public ResponseEntity deleteAuthor(@PathVariable("id") Long id) {
         authorService.delete(id);
+        responseCache.evictAuthor(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    private ResponseEntity<AuthorDto> withETag(AuthorEntity authorEntity) {
+        return ResponseEntity.ok()
+                .eTag(VersionTag.of(authorEntity.getVersion()))
+                .body(authorMapper.mapTo(authorEntity));
+    }
+
+    // No tag matches an author that does not exist, not even *
+    private static ResponseEntity<AuthorDto> missing(String ifMatch) {
+        return new ResponseEntity<>(ifMatch == null ? HttpStatus.NOT_FOUND : HttpStatus.PRECONDITION_FAILED);
+    }
 }
@@ -1,83 +1,279 @@
 package dev.xgeorget.database.controllers;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.dto.BookViewDto;
+import dev.xgeorget.database.domain.dto.BulkItemResultDto;
+import dev.xgeorget.database.domain.dto.CursorPageDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
 import dev.xgeorget.database.domain.entities.BookEntity;
 import dev.xgeorget.database.mappers.Mapper;
+import dev.xgeorget.database.repositories.RankedIsbn;
+import dev.xgeorget.database.services.BookSearchService;
 import dev.xgeorget.database.services.impl.BookServiceImpl;
+import dev.xgeorget.database.utils.CursorUtil;
+import dev.xgeorget.database.utils.Isbn;
+import dev.xgeorget.database.utils.NdjsonWriter;
+import dev.xgeorget.database.utils.PreconditionFailedException;
+import dev.xgeorget.database.utils.VersionTag;
 
 @RestController
+@Profile("!reactive")
 public class BookController {
+    private static final int            MAX_PAGE_SIZE = 1000;
+
     private Mapper<BookEntity, BookDto> bookMapper;
 
     private BookServiceImpl             bookService;
 
-    public BookController(Mapper<BookEntity, BookDto> bookMapper, BookServiceImpl bookService) {
+    private BookSearchService           bookSearchService;
+
+    private ObjectMapper                objectMapper;
+
+    private JsonResponseCache           responseCache;
+
+    private int                         bulkChunkSize;
+
+    public BookController(Mapper<BookEntity, BookDto> bookMapper, BookServiceImpl bookService,
+        BookSearchService bookSearchService, ObjectMapper objectMapper, JsonResponseCache responseCache,
+        @Value("${books.bulk.chunk-size:1000}") int bulkChunkSize) {
         this.bookMapper = bookMapper;
         this.bookService = bookService;
+        this.bookSearchService = bookSearchService;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
+        this.bulkChunkSize = bulkChunkSize;
     }
 
     @PutMapping(path = "/books/{isbn}")
-    public ResponseEntity<BookDto> createUpdateBook(@RequestBody BookDto bookDto, @PathVariable("isbn") String isbn) {
+    public ResponseEntity<BookDto> createUpdateBook(@RequestBody BookDto bookDto, @PathVariable("isbn") String isbn,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Books are only created under valid ISBNs, lookups still accept those written before they were checked
+        if (!Isbn.isValid(isbn)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
         BookEntity bookEntity = bookMapper.mapFrom(bookDto);
-        boolean bookExists = bookService.isExists(isbn);
+        if (ifMatch != null) {
+            // A conditional PUT only replaces, If-Match never matches a book that does not exist
+            try {
+                BookEntity updatedBookEntity = bookService.update(isbn, bookEntity, VersionTag.parse(ifMatch)
+                    .orElse(null));
+                responseCache.evict(JsonResponseCache.BOOKS, isbn);
+                return withETag(updatedBookEntity, HttpStatus.OK);
+            } catch (PreconditionFailedException e) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
+        }
 
-        BookEntity savedBookEntity = bookService.createUpdateBook(isbn, bookEntity);
-        BookDto savedUpdateBookDto = bookMapper.mapTo(savedBookEntity);
+        boolean bookCreated = bookService.upsert(isbn, bookEntity);
+        responseCache.evict(JsonResponseCache.BOOKS, isbn);
+        return withETag(bookEntity, bookCreated ? HttpStatus.CREATED : HttpStatus.OK);
+    }
 
-        if (bookExists) {
-            return new ResponseEntity<>(savedUpdateBookDto, HttpStatus.OK);
-        } else {
-            return new ResponseEntity<>(savedUpdateBookDto, HttpStatus.CREATED);
+    @PostMapping(path = "/books/_bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BulkItemResultDto>> bulkUpsertBooks(@RequestBody List<BookDto> bookDtos) {
+        List<BulkItemResultDto> results = new ArrayList<>(bookDtos.size());
+        for (int from = 0; from < bookDtos.size(); from += bulkChunkSize) {
+            results.addAll(upsertChunk(bookDtos.subList(from, Math.min(from + bulkChunkSize, bookDtos.size()))));
         }
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @PostMapping(path = "/books/_bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkUpsertBooksNdjson(InputStream inputStream) {
+        // Reads, commits and answers one chunk at a time, so the feed never has to fit in memory
+        StreamingResponseBody body = outputStream -> {
+            try (MappingIterator<BookDto> bookDtos = objectMapper.readerFor(BookDto.class)
+                .readValues(inputStream); NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+                List<BookDto> chunk = new ArrayList<>(bulkChunkSize);
+                while (bookDtos.hasNextValue()) {
+                    chunk.add(bookDtos.nextValue());
+                    if (chunk.size() == bulkChunkSize) {
+                        upsertChunk(chunk).forEach(writer::write);
+                        chunk.clear();
+                    }
+                }
+                upsertChunk(chunk).forEach(writer::write);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
     }
 
     @GetMapping(path = "/books")
-    public Page<BookDto> listBooks(Pageable pageable) {
-        Page<BookEntity> books = bookService.findAll(pageable);
-        return books.map(bookMapper::mapTo);
+    public Page<BookViewDto> listBooks(Pageable pageable) {
+        return bookService.findAllViews(pageable);
+    }
+
+    @GetMapping(path = "/books", params = "after")
+    public ResponseEntity<CursorPageDto<BookViewDto>> listBooksAfter(@RequestParam("after") String after,
+        @RequestParam(name = "size", defaultValue = "20") int size) {
+        String afterIsbn;
+        try {
+            afterIsbn = CursorUtil.decode(after);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells whether there is a next page without counting
+        List<BookViewDto> books = bookService.findViewsAfter(afterIsbn, limit + 1);
+        boolean hasNext = books.size() > limit;
+        List<BookViewDto> content = hasNext ? books.subList(0, limit) : books;
+        String nextCursor = hasNext ? CursorUtil.encode(content.get(limit - 1)
+            .isbn()) : null;
+
+        return new ResponseEntity<>(new CursorPageDto<>(content, content.size(), nextCursor), HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/books/search")
+    public ResponseEntity<CursorPageDto<BookDto>> searchBooks(@RequestParam("q") String query,
+        @RequestParam(name = "after", required = false) String after,
+        @RequestParam(name = "size", defaultValue = "20") int size) {
+        if (query.isBlank()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        // The cursor holds the rank and ISBN of the last hit, "rank:isbn"
+        float afterRank = Float.POSITIVE_INFINITY;
+        String afterIsbn = "";
+        try {
+            String cursor = CursorUtil.decode(after);
+            if (!cursor.isEmpty()) {
+                int separator = cursor.indexOf(':');
+                afterRank = Float.parseFloat(cursor.substring(0, separator));
+                afterIsbn = cursor.substring(separator + 1);
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<RankedIsbn> hits = bookSearchService.search(query, afterRank, afterIsbn, limit + 1);
+        boolean hasNext = hits.size() > limit;
+        List<RankedIsbn> pageHits = hasNext ? hits.subList(0, limit) : hits;
+
+        Map<String, BookEntity> books = bookService.findAllByIsbn(pageHits.stream()
+            .map(RankedIsbn::getIsbn)
+            .collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.toMap(BookEntity::getIsbn, Function.identity()));
+        List<BookDto> content = pageHits.stream()
+            .map(hit -> books.get(hit.getIsbn()))
+            .filter(Objects::nonNull)
+            .map(bookMapper::mapTo)
+            .collect(Collectors.toList());
+        RankedIsbn last = pageHits.isEmpty() ? null : pageHits.get(pageHits.size() - 1);
+        String nextCursor = hasNext ? CursorUtil.encode(last.getRank() + ":" + last.getIsbn()) : null;
+
+        return new ResponseEntity<>(new CursorPageDto<>(content, content.size(), nextCursor), HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/books/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        StreamingResponseBody body = outputStream -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+                bookService.streamAll(book -> writer.write(bookMapper.mapTo(book)));
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
     }
 
     @GetMapping(path = "/books/{isbn}")
-    public ResponseEntity<BookDto> getBook(@PathVariable("isbn") String isbn) {
-        Optional<BookEntity> foundBook = bookService.findByIsbn(isbn);
-
-        return foundBook.map(bookEntity -> {
-            BookDto bookDto = bookMapper.mapTo(bookEntity);
-            return new ResponseEntity<>(bookDto, HttpStatus.OK);
-        })
-            .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<byte[]> getBook(@PathVariable("isbn") String isbn) {
+        return responseCache.get(JsonResponseCache.BOOKS, isbn, () -> bookService.findByIsbn(isbn), bookMapper::mapTo,
+            BookController::eTagOf, book -> book.getAuthor() == null ? null : book.getAuthor()
+                .getId());
     }
 
     @PatchMapping("/books/{isbn}")
-    public ResponseEntity<BookDto> partialUpdate(@RequestBody BookDto bookDto, @PathVariable("isbn") String isbn) {
-
-        if (!bookService.isExists(isbn)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public ResponseEntity<BookDto> partialUpdate(@RequestBody BookDto bookDto, @PathVariable("isbn") String isbn,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookEntity bookEntity = bookMapper.mapFrom(bookDto);
+        try {
+            // The UPDATE tells a missing book by the rows it returns, there is no existence check up front
+            Optional<BookEntity> updatedBookEntity = bookService.partialUpdate(isbn, bookEntity,
+                VersionTag.parse(ifMatch)
+                    .orElse(null));
+            responseCache.evict(JsonResponseCache.BOOKS, isbn);
+            return updatedBookEntity.map(book -> withETag(book, HttpStatus.OK))
+                // No tag matches a book that does not exist, not even *
+                .orElseGet(() -> new ResponseEntity<>(
+                    ifMatch == null ? HttpStatus.NOT_FOUND : HttpStatus.PRECONDITION_FAILED));
+        } catch (PreconditionFailedException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
         }
+    }
 
-        BookEntity bookEntity = bookMapper.mapFrom(bookDto);
-        BookEntity updatedBookEntity = bookService.partialUpdate(isbn, bookEntity);
-        return new ResponseEntity<>(bookMapper.mapTo(updatedBookEntity), HttpStatus.OK);
+    private ResponseEntity<BookDto> withETag(BookEntity bookEntity, HttpStatus status) {
+        return ResponseEntity.status(status)
+            .eTag(eTagOf(bookEntity))
+            .body(bookMapper.mapTo(bookEntity));
+    }
+
+    private static String eTagOf(BookEntity bookEntity) {
+        AuthorEntity author = bookEntity.getAuthor();
+        return VersionTag.of(bookEntity.getVersion(), author == null ? null : author.getVersion());
+    }
+
+    private List<BulkItemResultDto> upsertChunk(List<BookDto> bookDtos) {
+        List<BookEntity> books = new ArrayList<>(bookDtos.size());
+        for (BookDto bookDto : bookDtos) {
+            if (Isbn.isValid(bookDto.getIsbn())) {
+                books.add(bookMapper.mapFrom(bookDto));
+            }
+        }
+        Map<String, Boolean> created = books.isEmpty() ? Map.of() : bookService.bulkUpsert(books);
+        created.keySet()
+            .forEach(isbn -> responseCache.evict(JsonResponseCache.BOOKS, isbn));
 
+        List<BulkItemResultDto> results = new ArrayList<>(bookDtos.size());
+        for (BookDto bookDto : bookDtos) {
+            Boolean bookCreated = bookDto.getIsbn() == null ? null : created.get(bookDto.getIsbn());
+            BulkItemResultDto.Status status = bookCreated == null ? BulkItemResultDto.Status.REJECTED
+                : bookCreated ? BulkItemResultDto.Status.CREATED : BulkItemResultDto.Status.UPDATED;
+            results.add(new BulkItemResultDto(bookDto.getIsbn(), status));
+        }
+        return results;
     }
 
     @DeleteMapping(path = "/books/{isbn}")
     public ResponseEntity deleteBook(@PathVariable("isbn") String isbn) {
         bookService.delete(isbn);
+        responseCache.evict(JsonResponseCache.BOOKS, isbn);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
@@ -0,0 +1,65 @@
+package dev.xgeorget.database.controllers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import dev.xgeorget.database.domain.dto.ChangeBatchDto;
+import dev.xgeorget.database.domain.dto.ChangeDto;
+import dev.xgeorget.database.services.ChangeService;
+
+@RestController
+@Profile("!reactive")
+public class ChangeController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private ChangeService    changeService;
+
+    private TaskExecutor     taskExecutor;
+
+    private Duration         pollTimeout;
+
+    public ChangeController(ChangeService changeService, TaskExecutor taskExecutor,
+        @Value("${books.changes.poll-timeout:30s}") Duration pollTimeout) {
+        this.changeService = changeService;
+        this.taskExecutor = taskExecutor;
+        this.pollTimeout = pollTimeout;
+    }
+
+    // Long-poll: answers as soon as there is a change after since, or with an empty batch once the timeout elapses
+    @GetMapping(path = "/changes")
+    public DeferredResult<ChangeBatchDto> listChanges(@RequestParam(name = "since", defaultValue = "0") long since,
+        @RequestParam(name = "size", defaultValue = "100") int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_BATCH_SIZE);
+        DeferredResult<ChangeBatchDto> result = new DeferredResult<>(pollTimeout.toMillis(),
+            new ChangeBatchDto(List.of(), since));
+        poll(since, limit, result);
+        return result;
+    }
+
+    private void poll(long since, int limit, DeferredResult<ChangeBatchDto> result) {
+        // Taken before the read, a commit landing in between still wakes the request. Commits made by other
+        // instances are only seen by the next poll.
+        CompletableFuture<Void> nextCommit = changeService.nextCommit();
+        List<ChangeDto> changes = changeService.findAfter(since, limit);
+        if (!changes.isEmpty()) {
+            result.setResult(new ChangeBatchDto(changes, changes.get(changes.size() - 1)
+                .seq()));
+        } else if (!result.isSetOrExpired()) {
+            nextCommit.thenRunAsync(() -> {
+                if (!result.isSetOrExpired()) {
+                    poll(since, limit, result);
+                }
+            }, taskExecutor);
+        }
+    }
+
+}
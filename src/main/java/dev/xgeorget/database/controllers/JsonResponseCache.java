@@ -0,0 +1,212 @@
+package dev.xgeorget.database.controllers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import dev.xgeorget.database.domain.dto.ChangeDto;
+import dev.xgeorget.database.repositories.ChangeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Serialized JSON of single books and authors, with the strong ETag of the version they were serialized from. Writes
+ * in this instance evict their entries directly, those made through other instances are read from the change feed
+ * every {@code books.response-cache.poll-interval}, until then their old JSON may still be served.
+ */
+@Component
+@Profile("!reactive")
+class JsonResponseCache implements DisposableBean {
+    static final String         BOOKS      = "books";
+
+    static final String         AUTHORS    = "authors";
+
+    private static final Logger LOG        = LoggerFactory.getLogger(JsonResponseCache.class);
+
+    private static final int    POLL_BATCH = 1000;
+
+    private static final int    STRIPES    = 1024;
+
+    private record Key(String region, Object id) {
+    }
+
+    // The id of the author embedded in a book, null for authors
+    private record Entry(byte[] body, String etag, Long author) {
+    }
+
+    private final ObjectMapper       objectMapper;
+
+    private final Cache<Key, Entry>  cache;
+
+    // Ticks with every eviction, each stripe of keys keeps the tick of its last one. A load that started before an
+    // eviction of its key or of its author is then not stored, loads of unrelated keys are not held back.
+    private final AtomicLong         clock      = new AtomicLong();
+
+    private final AtomicLongArray    evictedAt  = new AtomicLongArray(STRIPES);
+
+    private final ChangeRepository   changeRepository;
+
+    private final Duration           pollInterval;
+
+    // Last change read from the feed
+    private long                     seq;
+
+    private ScheduledExecutorService scheduler;
+
+    JsonResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry, ChangeRepository changeRepository,
+        @Value("${books.response-cache.ttl:10m}") Duration ttl,
+        @Value("${books.response-cache.max-size:10000}") long maxSize,
+        @Value("${books.response-cache.poll-interval:1s}") Duration pollInterval) {
+        this.objectMapper = objectMapper;
+        this.changeRepository = changeRepository;
+        this.pollInterval = pollInterval;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "responses");
+    }
+
+    /**
+     * Answers with the cached body, Spring turns it into a 304 when the ETag matches If-None-Match.
+     */
+    <T> ResponseEntity<byte[]> get(String region, Object id, Supplier<Optional<T>> loader, Function<T, ?> mapper,
+        Function<T, String> eTag) {
+        return get(region, id, loader, mapper, eTag, entity -> null);
+    }
+
+    /**
+     * Like {@link #get(String, Object, Supplier, Function, Function)} for JSON that embeds an author, the entry is
+     * evicted with that author.
+     */
+    <T> ResponseEntity<byte[]> get(String region, Object id, Supplier<Optional<T>> loader, Function<T, ?> mapper,
+        Function<T, String> eTag, Function<T, Long> author) {
+        Key key = new Key(region, id);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            long started = clock.get();
+            Optional<T> entity = loader.get();
+            if (entity.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            Long authorId = author.apply(entity.get());
+            entry = serialize(mapper.apply(entity.get()), eTag.apply(entity.get()), authorId);
+            Key authorKey = authorId == null ? null : new Key(AUTHORS, authorId);
+            if (!evictedSince(started, key, authorKey)) {
+                cache.put(key, entry);
+                // An eviction between the check and the put would otherwise leave the old JSON cached
+                if (evictedSince(started, key, authorKey)) {
+                    cache.invalidate(key);
+                }
+            }
+        }
+        return ResponseEntity.ok()
+            .eTag(entry.etag())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(entry.body());
+    }
+
+    void evict(String region, Object id) {
+        Key key = new Key(region, id);
+        tick(key);
+        cache.invalidate(key);
+    }
+
+    /**
+     * Evicts the author and the books whose JSON embeds it. A new author is in no cached book, nothing else goes.
+     */
+    void evictAuthor(Long id) {
+        evict(AUTHORS, id);
+        cache.asMap()
+            .values()
+            .removeIf(entry -> id.equals(entry.author()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Nothing is cached yet, earlier changes need no eviction
+        seq = changeRepository.head();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "response-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Also evicts again what this instance wrote, which costs a reload at most
+    void poll() {
+        try {
+            List<ChangeDto> changes;
+            do {
+                changes = changeRepository.findAfter(seq, POLL_BATCH);
+                for (ChangeDto change : changes) {
+                    if (change.entityType() == ChangeDto.EntityType.BOOK) {
+                        evict(BOOKS, change.entityId());
+                    } else {
+                        evictAuthor(Long.valueOf(change.entityId()));
+                    }
+                    seq = change.seq();
+                }
+            } while (changes.size() == POLL_BATCH);
+        } catch (RuntimeException e) {
+            // An exception would cancel the later runs
+            LOG.warn("Could not read the change feed", e);
+        }
+    }
+
+    private void tick(Key key) {
+        evictedAt.accumulateAndGet(stripe(key), clock.incrementAndGet(), Math::max);
+    }
+
+    private boolean evictedSince(long started, Key key, Key authorKey) {
+        return evictedAt.get(stripe(key)) > started || authorKey != null && evictedAt.get(stripe(authorKey)) > started;
+    }
+
+    private static int stripe(Key key) {
+        int hash = key.hashCode();
+        return (hash ^ hash >>> 16) & (STRIPES - 1);
+    }
+
+    private Entry serialize(Object dto, String eTag, Long author) {
+        try {
+            return new Entry(objectMapper.writeValueAsBytes(dto), eTag, author);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package dev.xgeorget.database.controllers;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import dev.xgeorget.database.domain.dto.AuthorDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.mappers.Mapper;
+import dev.xgeorget.database.services.ReactiveAuthorService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read endpoints of {@link AuthorController} on WebFlux and R2DBC.
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveAuthorController {
+    private ReactiveAuthorService           authorService;
+
+    private Mapper<AuthorEntity, AuthorDto> authorMapper;
+
+    public ReactiveAuthorController(ReactiveAuthorService authorService, Mapper<AuthorEntity, AuthorDto> authorMapper) {
+        this.authorService = authorService;
+        this.authorMapper = authorMapper;
+    }
+
+    @GetMapping(path = "/authors")
+    public Mono<Page<AuthorDto>> listAuthors(Pageable pageable) {
+        return authorService.findAll(pageable)
+            .map(authors -> authors.map(authorMapper::mapTo));
+    }
+
+    // Rows are read from the database only as fast as the client consumes them
+    @GetMapping(path = "/authors", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AuthorDto> streamAuthors() {
+        return authorService.streamAll()
+            .map(authorMapper::mapTo);
+    }
+
+    @GetMapping(path = "/authors/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AuthorDto> exportAuthors() {
+        return streamAuthors();
+    }
+
+    @GetMapping(path = "/authors/{id}")
+    public Mono<ResponseEntity<AuthorDto>> getAuthor(@PathVariable("id") Long id) {
+        return authorService.findById(id)
+            .map(authorEntity -> new ResponseEntity<>(authorMapper.mapTo(authorEntity), HttpStatus.OK))
+            .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+}
@@ -0,0 +1,91 @@
+package dev.xgeorget.database.controllers;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.dto.CursorPageDto;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.mappers.Mapper;
+import dev.xgeorget.database.services.ReactiveBookService;
+import dev.xgeorget.database.utils.CursorUtil;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read endpoints of {@link BookController} on WebFlux and R2DBC.
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveBookController {
+    private static final int            MAX_PAGE_SIZE = 1000;
+
+    private Mapper<BookEntity, BookDto> bookMapper;
+
+    private ReactiveBookService         bookService;
+
+    public ReactiveBookController(Mapper<BookEntity, BookDto> bookMapper, ReactiveBookService bookService) {
+        this.bookMapper = bookMapper;
+        this.bookService = bookService;
+    }
+
+    @GetMapping(path = "/books")
+    public Mono<Page<BookDto>> listBooks(Pageable pageable) {
+        return bookService.findAll(pageable)
+            .map(books -> books.map(bookMapper::mapTo));
+    }
+
+    // Rows are read from the database only as fast as the client consumes them
+    @GetMapping(path = "/books", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDto> streamBooks() {
+        return bookService.streamAll()
+            .map(bookMapper::mapTo);
+    }
+
+    @GetMapping(path = "/books", params = "after")
+    public Mono<ResponseEntity<CursorPageDto<BookDto>>> listBooksAfter(@RequestParam("after") String after,
+        @RequestParam(name = "size", defaultValue = "20") int size) {
+        String afterIsbn;
+        try {
+            afterIsbn = CursorUtil.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells whether there is a next page without counting
+        return bookService.findAfter(afterIsbn, limit + 1)
+            .map(bookMapper::mapTo)
+            .collectList()
+            .map(books -> {
+                boolean hasNext = books.size() > limit;
+                List<BookDto> content = hasNext ? books.subList(0, limit) : books;
+                String nextCursor = hasNext ? CursorUtil.encode(content.get(limit - 1)
+                    .getIsbn()) : null;
+                return new ResponseEntity<>(new CursorPageDto<>(content, content.size(), nextCursor), HttpStatus.OK);
+            });
+    }
+
+    @GetMapping(path = "/books/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDto> exportBooks() {
+        return streamBooks();
+    }
+
+    @GetMapping(path = "/books/{isbn}")
+    public Mono<ResponseEntity<BookDto>> getBook(@PathVariable("isbn") String isbn) {
+        return bookService.findByIsbn(isbn)
+            .map(bookEntity -> new ResponseEntity<>(bookMapper.mapTo(bookEntity), HttpStatus.OK))
+            .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+}
@@ -0,0 +1,71 @@
+package dev.xgeorget.database.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Read-your-writes for a client of the replicas: a request that may write sets a cookie that lives for
+ * {@code window}, and the reads of the requests carrying it go to the primary, which already has the write.
+ */
+public class PrimaryStickinessFilter extends OncePerRequestFilter {
+    public static final String                COOKIE      = "books-primary";
+
+    // Set for the reads of a client that has just written, writes only go to the primary
+    private static final ThreadLocal<Boolean> STICKY_READ = new ThreadLocal<>();
+
+    private final Duration                    window;
+
+    public PrimaryStickinessFilter(final Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+        final FilterChain filterChain) throws ServletException, IOException {
+        boolean write = !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())
+            || "OPTIONS".equals(request.getMethod()));
+        if (write) {
+            // Before the chain, the response may be committed by the time it returns
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, "1")
+                .maxAge(window)
+                .path("/")
+                .httpOnly(true)
+                .build()
+                .toString());
+        }
+        if (!write && WebUtils.getCookie(request, COOKIE) == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ReplicaRoutingDataSource.usePrimary();
+        if (!write) {
+            STICKY_READ.set(Boolean.TRUE);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.reset();
+            STICKY_READ.remove();
+        }
+    }
+
+    /**
+     * Whether the current thread handles a read that must see the writes its client made in the last {@code window},
+     * through whichever instance.
+     */
+    public static boolean isStickyRead() {
+        return STICKY_READ.get() != null;
+    }
+
+}
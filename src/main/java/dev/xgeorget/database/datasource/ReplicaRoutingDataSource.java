@@ -0,0 +1,97 @@
+package dev.xgeorget.database.datasource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hands out replica connections to read-only transactions, round-robin, and primary connections to everything else.
+ * A replica that fails to give a connection is skipped for {@code retryAfter}, when none is left the primary serves
+ * the read. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, the
+ * transaction is only marked read-only after it has asked for its connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private final DataSource                  primary;
+
+    private final List<HikariDataSource>      replicas;
+
+    private final long                        retryAfterNanos;
+
+    private final AtomicInteger               next    = new AtomicInteger();
+
+    // System.nanoTime() until which each replica is skipped
+    private final AtomicLongArray             downUntil;
+
+    public ReplicaRoutingDataSource(final DataSource primary, final List<HikariDataSource> replicas,
+        final Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.downUntil = new AtomicLongArray(replicas.size());
+        long now = System.nanoTime();
+        for (int i = 0; i < replicas.size(); i++) {
+            downUntil.set(i, now);
+        }
+    }
+
+    /**
+     * Sends the reads of the current thread to the primary as well, until {@link #reset()}.
+     */
+    public static void usePrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void reset() {
+        PRIMARY.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PRIMARY.get() != null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+
+        int size = replicas.size();
+        int first = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int replica = (first + i) % size;
+            long now = System.nanoTime();
+            if (now - downUntil.get(replica) < 0) {
+                continue;
+            }
+            try {
+                return replicas.get(replica)
+                    .getConnection();
+            } catch (SQLException e) {
+                downUntil.set(replica, now + retryAfterNanos);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    // Other credentials are not known to the replicas, such connections always come from the primary
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // The primary is a bean of its own and closed by the context
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+}
@@ -0,0 +1,7 @@
+package dev.xgeorget.database.domain.dto;
+
+/**
+ * A book listed under its author, the author is already known from the path.
+ */
+public record AuthorBookDto(String isbn, String title) {
+}
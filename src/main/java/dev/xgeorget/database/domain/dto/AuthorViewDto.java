@@ -0,0 +1,7 @@
+package dev.xgeorget.database.domain.dto;
+
+/**
+ * A read-only author built by a JPQL constructor expression, serialized like {@link AuthorDto}.
+ */
+public record AuthorViewDto(Long id, String name, Integer age) {
+}
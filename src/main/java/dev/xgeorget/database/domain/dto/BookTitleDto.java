@@ -0,0 +1,7 @@
+package dev.xgeorget.database.domain.dto;
+
+/**
+ * The ISBN and title of a book, all that the title search index needs.
+ */
+public record BookTitleDto(String isbn, String title) {
+}
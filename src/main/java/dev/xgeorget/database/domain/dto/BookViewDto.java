@@ -0,0 +1,12 @@
+package dev.xgeorget.database.domain.dto;
+
+/**
+ * A read-only book built by a JPQL constructor expression, serialized like {@link BookDto}.
+ */
+public record BookViewDto(String isbn, String title, AuthorViewDto author) {
+
+    // Constructor expressions cannot nest, the author columns arrive flat and are null for a book without author
+    public BookViewDto(String isbn, String title, Long authorId, String authorName, Integer authorAge) {
+        this(isbn, title, authorId == null ? null : new AuthorViewDto(authorId, authorName, authorAge));
+    }
+}
@@ -0,0 +1,22 @@
+package dev.xgeorget.database.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkItemResultDto {
+    public enum Status {
+        CREATED, UPDATED, REJECTED
+    }
+
+    private String isbn;
+
+    private Status status;
+}
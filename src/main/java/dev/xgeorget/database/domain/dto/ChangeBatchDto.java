@@ -0,0 +1,9 @@
+package dev.xgeorget.database.domain.dto;
+
+import java.util.List;
+
+/**
+ * A batch of changes, the next request passes {@code next} as {@code since}.
+ */
+public record ChangeBatchDto(List<ChangeDto> changes, long next) {
+}
@@ -0,0 +1,17 @@
+package dev.xgeorget.database.domain.dto;
+
+import java.time.Instant;
+
+/**
+ * One committed write from the outbox, sequence numbers increase in commit order.
+ */
+public record ChangeDto(long seq, EntityType entityType, String entityId, Operation operation, Instant changedAt) {
+
+    public enum EntityType {
+        BOOK, AUTHOR
+    }
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+}
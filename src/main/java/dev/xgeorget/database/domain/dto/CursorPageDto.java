@@ -0,0 +1,23 @@
+package dev.xgeorget.database.domain.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+    private List<T> content;
+
+    private int     size;
+
+    // null on the last page
+    private String  nextCursor;
+}
@@ -1,10 +1,16 @@
 package dev.xgeorget.database.domain.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,13 +23,21 @@ import lombok.Setter;
 @NoArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
 @Table(name = "authors")
 public class AuthorEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_id_seq")
+    // One nextval per 50 ids, the INCREMENT of the sequence wins if it differs (increment_size_mismatch_strategy=fix)
+    @SequenceGenerator(name = "author_id_seq", sequenceName = "author_id_seq", allocationSize = 50)
     private Long    id;
 
     private String  name;
 
     private Integer age;
+
+    // Primitive so that Spring Data still tells new entities by their id, saving an assigned id keeps merging
+    @Version
+    private long    version;
 }
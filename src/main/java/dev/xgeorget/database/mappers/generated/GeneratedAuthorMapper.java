@@ -0,0 +1,19 @@
+package dev.xgeorget.database.mappers.generated;
+
+import org.mapstruct.Mapping;
+
+import dev.xgeorget.database.domain.dto.AuthorDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.mappers.Mapper;
+
+/**
+ * Compile-time generated mapper, implemented by the MapStruct annotation processor as plain getter/setter calls.
+ */
+@org.mapstruct.Mapper
+public interface GeneratedAuthorMapper extends Mapper<AuthorEntity, AuthorDto> {
+
+    // The version is never taken from a request body, conditional writes read it from If-Match
+    @Override
+    @Mapping(target = "version", ignore = true)
+    AuthorEntity mapFrom(AuthorDto authorDto);
+}
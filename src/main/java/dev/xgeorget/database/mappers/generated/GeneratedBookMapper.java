@@ -0,0 +1,18 @@
+package dev.xgeorget.database.mappers.generated;
+
+import org.mapstruct.Mapping;
+
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.mappers.Mapper;
+
+/**
+ * Compile-time generated mapper, the nested author is delegated to {@link GeneratedAuthorMapper}.
+ */
+@org.mapstruct.Mapper(uses = GeneratedAuthorMapper.class)
+public interface GeneratedBookMapper extends Mapper<BookEntity, BookDto> {
+
+    @Override
+    @Mapping(target = "version", ignore = true)
+    BookEntity mapFrom(BookDto bookDto);
+}
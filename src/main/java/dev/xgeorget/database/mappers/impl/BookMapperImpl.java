@@ -1,6 +1,7 @@
 package dev.xgeorget.database.mappers.impl;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import dev.xgeorget.database.domain.dto.BookDto;
@@ -8,6 +9,7 @@ import dev.xgeorget.database.domain.entities.BookEntity;
 import dev.xgeorget.database.mappers.Mapper;
 
 @Component
+@ConditionalOnProperty(name = "books.mapper", havingValue = "modelmapper")
 public class BookMapperImpl implements Mapper<BookEntity, BookDto> {
 
     private final ModelMapper modelMapper;
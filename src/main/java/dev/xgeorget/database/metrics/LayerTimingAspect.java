@@ -0,0 +1,85 @@
+package dev.xgeorget.database.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call to the services and the mappers as {@code books.layer}, tagged with the layer, the implementing
+ * class and the method. Only a {@code sampleRate} fraction of the calls is timed, so the counts are sampled too.
+ */
+@Aspect
+// Outside the transaction advice, so the commit is part of the service time
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LayerTimingAspect {
+    public static final String METRIC = "books.layer";
+
+    private final MeterRegistry      registry;
+
+    private final double             sampleRate;
+
+    // Building the meter id on every call would allocate more than the mappers themselves
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public LayerTimingAspect(final MeterRegistry registry, final double sampleRate) {
+        this.registry = registry;
+        this.sampleRate = sampleRate;
+    }
+
+    @Around("execution(* dev.xgeorget.database.services.BookService.*(..))"
+        + " || execution(* dev.xgeorget.database.services.AuthorService.*(..))")
+    public Object service(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service");
+    }
+
+    @Around("execution(* dev.xgeorget.database.mappers.Mapper.*(..))")
+    public Object mapper(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "mapper");
+    }
+
+    private Object time(final ProceedingJoinPoint joinPoint, final String layer) throws Throwable {
+        if (sampleRate < 1 && ThreadLocalRandom.current()
+            .nextDouble() >= sampleRate) {
+            return joinPoint.proceed();
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timers.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                method -> timer(joinPoint, layer, "none"))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(joinPoint, layer, e.getClass()
+                .getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(final ProceedingJoinPoint joinPoint, final String layer, final String exception) {
+        return Timer.builder(METRIC)
+            .description("Time spent in the services and the mappers")
+            .tag("layer", layer)
+            .tag("class", ClassUtils.getUserClass(joinPoint.getTarget())
+                .getSimpleName())
+            .tag("method", joinPoint.getSignature()
+                .getName())
+            .tag("exception", exception)
+            .register(registry);
+    }
+
+}
@@ -0,0 +1,77 @@
+package dev.xgeorget.database.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements sent while a request is handled, recorded as {@code books.http.sql.statements} per
+ * method and URI pattern. The statements are seen by the {@link StatementCountingDataSource} wrapping the
+ * application's DataSource, so those of Hibernate and of {@code JdbcTemplate} are both counted. Only a
+ * {@code sampleRate} fraction of the requests is counted.
+ */
+public class SqlStatementCounter implements AsyncHandlerInterceptor {
+    public static final String              METRIC = "books.http.sql.statements";
+
+    // Static as the DataSource is wrapped before the web layer exists
+    private static final ThreadLocal<int[]> COUNT  = new ThreadLocal<>();
+
+    private final MeterRegistry             registry;
+
+    private final double                    sampleRate;
+
+    public SqlStatementCounter(final MeterRegistry registry, final double sampleRate) {
+        this.registry = registry;
+        this.sampleRate = sampleRate;
+    }
+
+    static void count() {
+        int[] statements = COUNT.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+        final Object handler) {
+        if (sampleRate >= 1 || ThreadLocalRandom.current()
+            .nextDouble() < sampleRate) {
+            COUNT.set(new int[1]);
+        }
+        return true;
+    }
+
+    // The handler goes on in another thread, whatever runs next on this one belongs to another request
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response,
+        final Object handler) {
+        COUNT.remove();
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+        final Object handler, final Exception ex) {
+        int[] statements = COUNT.get();
+        if (statements == null) {
+            return;
+        }
+        COUNT.remove();
+
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC)
+            .description("SQL statements per request")
+            .baseUnit("statements")
+            .tag("method", request.getMethod())
+            .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+            .register(registry)
+            .record(statements[0]);
+    }
+
+}
@@ -0,0 +1,48 @@
+package dev.xgeorget.database.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts the statements prepared or created on its connections for {@link SqlStatementCounter}, whether they come
+ * from Hibernate or from {@code JdbcTemplate}. A JDBC batch is prepared once and counts as one statement.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    public StatementCountingDataSource(final DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+            new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                if (STATEMENT_METHODS.contains(method.getName())) {
+                    SqlStatementCounter.count();
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+
+}
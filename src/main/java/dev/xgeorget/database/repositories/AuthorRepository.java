@@ -1,13 +1,42 @@
 package dev.xgeorget.database.repositories;
 
-// import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import dev.xgeorget.database.domain.dto.AuthorViewDto;
 import dev.xgeorget.database.domain.entities.AuthorEntity;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface AuthorRepository extends CrudRepository<AuthorEntity, Long> {
+public interface AuthorRepository
+    extends CrudRepository<AuthorEntity, Long>, PagingAndSortingRepository<AuthorEntity, Long>,
+    AuthorUpdateRepository {
+
+    @Query("SELECT a.id FROM AuthorEntity a WHERE a.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Built straight from the rows, no entity or snapshot enters the persistence context
+    @Query(value = "SELECT new dev.xgeorget.database.domain.dto.AuthorViewDto(a.id, a.name, a.age) FROM AuthorEntity a",
+        countQuery = "SELECT count(a) FROM AuthorEntity a")
+    Page<AuthorViewDto> findAllViews(Pageable pageable);
+
+    // Must be consumed inside a transaction, rows are fetched from a server-side cursor in batches. A full export
+    // bypasses the second-level cache so that it does not evict the entries of the hot lookups.
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE") })
+    @Query("SELECT a FROM AuthorEntity a ORDER BY a.id")
+    Stream<AuthorEntity> streamAll();
 
     // Iterable<AuthorEntity> ageLessThan(int age);
 
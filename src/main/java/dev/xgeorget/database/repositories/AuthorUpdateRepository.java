@@ -0,0 +1,20 @@
+package dev.xgeorget.database.repositories;
+
+import java.util.Optional;
+
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+
+public interface AuthorUpdateRepository {
+    /**
+     * Replaces the name and age of the author and bumps its version in one statement that returns the new row.
+     *
+     * @param version the version the row must still have, null to update whatever it is
+     * @return the written row, empty if there was no such author at that version
+     */
+    Optional<AuthorEntity> update(AuthorEntity author, Long version);
+
+    /**
+     * Like {@link #update(AuthorEntity, Long)}, but only a name or age that is not null is written.
+     */
+    Optional<AuthorEntity> partialUpdate(AuthorEntity author, Long version);
+}
@@ -0,0 +1,73 @@
+package dev.xgeorget.database.repositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+
+public class AuthorUpdateRepositoryImpl implements AuthorUpdateRepository {
+    private static final String                  COLUMNS    = "id, name, age, version";
+
+    private static final RowMapper<AuthorEntity> ROW_MAPPER = (rs, rowNum) -> AuthorEntity.builder()
+        .id(rs.getLong("id"))
+        .name(rs.getString("name"))
+        .age(rs.getObject("age", Integer.class))
+        .version(rs.getLong("version"))
+        .build();
+
+    private final JdbcTemplate                   jdbcTemplate;
+
+    private final DatabasePlatform               databasePlatform;
+
+    public AuthorUpdateRepositoryImpl(final JdbcTemplate jdbcTemplate, final DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    @Override
+    public Optional<AuthorEntity> update(final AuthorEntity author, final Long version) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put("name", author.getName());
+        assignments.put("age", author.getAge());
+        return updateReturning(author.getId(), assignments, version);
+    }
+
+    @Override
+    public Optional<AuthorEntity> partialUpdate(final AuthorEntity author, final Long version) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        if (author.getName() != null) {
+            assignments.put("name", author.getName());
+        }
+        if (author.getAge() != null) {
+            assignments.put("age", author.getAge());
+        }
+        return updateReturning(author.getId(), assignments, version);
+    }
+
+    private Optional<AuthorEntity> updateReturning(final Long id, final Map<String, Object> assignments,
+        final Long version) {
+        StringBuilder update = new StringBuilder("UPDATE authors SET ");
+        List<Object> args = new ArrayList<>(assignments.size() + 2);
+        assignments.forEach((column, value) -> {
+            update.append(column)
+                .append(" = ?, ");
+            args.add(value);
+        });
+        update.append("version = version + 1 WHERE id = ?");
+        args.add(id);
+        if (version != null) {
+            update.append(" AND version = ?");
+            args.add(version);
+        }
+        return jdbcTemplate.query(databasePlatform.returning(update.toString(), COLUMNS), ROW_MAPPER, args.toArray())
+            .stream()
+            .findFirst();
+    }
+
+}
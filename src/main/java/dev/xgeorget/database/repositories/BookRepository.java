@@ -1,13 +1,83 @@
 package dev.xgeorget.database.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import dev.xgeorget.database.domain.dto.AuthorBookDto;
+import dev.xgeorget.database.domain.dto.BookTitleDto;
+import dev.xgeorget.database.domain.dto.BookViewDto;
 import dev.xgeorget.database.domain.entities.BookEntity;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface BookRepository
-    extends CrudRepository<BookEntity, String>, PagingAndSortingRepository<BookEntity, String> {
+public interface BookRepository extends CrudRepository<BookEntity, String>,
+    PagingAndSortingRepository<BookEntity, String>, BookUpsertRepository {
+
+    // Loads each page and its authors in one statement, the count runs without the join
+    @Query(value = "SELECT b FROM BookEntity b LEFT JOIN FETCH b.author",
+        countQuery = "SELECT count(b) FROM BookEntity b")
+    Page<BookEntity> findAllWithAuthors(Pageable pageable);
+
+    // Seeks on the primary key index instead of scanning an OFFSET, no count query is issued for a List
+    @Query("SELECT b FROM BookEntity b LEFT JOIN FETCH b.author WHERE b.isbn > :isbn ORDER BY b.isbn")
+    List<BookEntity> findAfter(@Param("isbn") String isbn, Pageable pageable);
+
+    // Reads the foreign key column only, books_author_id_isbn_idx serves both the filter and the order
+    @Query("SELECT new dev.xgeorget.database.domain.dto.AuthorBookDto(b.isbn, b.title) FROM BookEntity b "
+        + "WHERE b.author.id = :authorId AND b.isbn > :isbn ORDER BY b.isbn")
+    List<AuthorBookDto> findByAuthorAfter(@Param("authorId") Long authorId, @Param("isbn") String isbn,
+        Pageable pageable);
+
+    // The projections below are built straight from the rows, no entity or snapshot enters the persistence context
+    @Query(value = "SELECT new dev.xgeorget.database.domain.dto.BookViewDto(b.isbn, b.title, a.id, a.name, a.age) "
+        + "FROM BookEntity b LEFT JOIN b.author a", countQuery = "SELECT count(b) FROM BookEntity b")
+    Page<BookViewDto> findAllViews(Pageable pageable);
+
+    @Query("SELECT new dev.xgeorget.database.domain.dto.BookViewDto(b.isbn, b.title, a.id, a.name, a.age) "
+        + "FROM BookEntity b LEFT JOIN b.author a WHERE b.isbn > :isbn ORDER BY b.isbn")
+    List<BookViewDto> findViewsAfter(@Param("isbn") String isbn, Pageable pageable);
+
+    @Query("SELECT b FROM BookEntity b LEFT JOIN FETCH b.author WHERE b.isbn IN :isbns")
+    List<BookEntity> findAllWithAuthorsByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    // Matches the expression of books_title_fts_idx in V3__add_title_search_index.sql so the GIN index is used. The
+    // ranks after the cursor are compared as real, the type ts_rank returns.
+    @Query(value = "SELECT r.isbn AS isbn, r.rank AS rank FROM (SELECT b.isbn AS isbn, "
+        + "ts_rank(to_tsvector('simple', coalesce(b.title, '')), q) AS rank "
+        + "FROM books b, plainto_tsquery('simple', :query) q "
+        + "WHERE to_tsvector('simple', coalesce(b.title, '')) @@ q) r "
+        + "WHERE r.rank < CAST(:rank AS real) OR (r.rank = CAST(:rank AS real) AND r.isbn > :isbn) "
+        + "ORDER BY r.rank DESC, r.isbn LIMIT :limit", nativeQuery = true)
+    List<RankedIsbn> searchTitles(@Param("query") String query, @Param("rank") float rank,
+        @Param("isbn") String isbn, @Param("limit") int limit);
+
+    // Must be consumed inside a transaction, rows are fetched from a server-side cursor in batches. A full export
+    // bypasses the second-level cache so that it does not evict the entries of the hot lookups.
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE") })
+    @Query("SELECT b FROM BookEntity b LEFT JOIN FETCH b.author ORDER BY b.isbn")
+    Stream<BookEntity> streamAll();
+
+    // Fills the in-memory search index without loading entities or their authors, in batches like streamAll
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new dev.xgeorget.database.domain.dto.BookTitleDto(b.isbn, b.title) FROM BookEntity b")
+    Stream<BookTitleDto> streamTitles();
+
+    // The keys only, read from the primary key index in batches to fill the existence filter
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT b.isbn FROM BookEntity b")
+    Stream<String> streamIsbns();
 
 }
@@ -0,0 +1,29 @@
+package dev.xgeorget.database.repositories;
+
+import java.util.Optional;
+
+import dev.xgeorget.database.domain.entities.BookEntity;
+
+public interface BookUpsertRepository {
+    /**
+     * Inserts or replaces the book row without loading it first. The version of the written row is set on the book.
+     *
+     * @return true if the row was inserted, false if it was updated. Empty if the author does not exist, nothing is
+     *         written then.
+     */
+    Optional<Boolean> upsert(BookEntity book);
+
+    /**
+     * Replaces the title and author of the book and bumps its version in one statement that returns the new row.
+     *
+     * @param version the version the row must still have, null to update whatever it is
+     * @return the written row, its author carries only the id. Empty if there was no such book at that version or
+     *         its author does not exist.
+     */
+    Optional<BookEntity> update(BookEntity book, Long version);
+
+    /**
+     * Like {@link #update(BookEntity, Long)}, but only a title or author that is not null is written.
+     */
+    Optional<BookEntity> partialUpdate(BookEntity book, Long version);
+}
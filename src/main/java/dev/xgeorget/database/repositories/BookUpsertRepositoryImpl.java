@@ -0,0 +1,131 @@
+package dev.xgeorget.database.repositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+
+public class BookUpsertRepositoryImpl implements BookUpsertRepository {
+    // Rows are only written when their author exists or is null, a missing author comes back as no row rather than
+    // as a foreign key violation, which would abort the transaction on Postgres
+    private static final String AUTHOR_EXISTS = "(CAST(? AS BIGINT) IS NULL "
+        + "OR EXISTS (SELECT 1 FROM authors WHERE id = ?))";
+
+    // Only an insert leaves the version at 0, which tells it from an update in the same round trip. Unlike xmax it can
+    // also be returned from a partitioned table
+    private static final String UPSERT = "INSERT INTO books (isbn, title, author_id) SELECT ?, ?, CAST(? AS BIGINT) "
+        + "WHERE " + AUTHOR_EXISTS + " ON CONFLICT (isbn) DO UPDATE SET title = EXCLUDED.title, "
+        + "author_id = EXCLUDED.author_id, version = books.version + 1 RETURNING books.version";
+
+    private static final String UPDATE = "UPDATE books SET title = ?, author_id = ?, version = version + 1 "
+        + "WHERE isbn = ? AND " + AUTHOR_EXISTS;
+
+    private static final String COLUMNS = "isbn, title, author_id, version";
+
+    private static final String INSERT = "INSERT INTO books (isbn, title, author_id) SELECT ?, ?, CAST(? AS BIGINT) "
+        + "WHERE " + AUTHOR_EXISTS;
+
+    private static final RowMapper<BookEntity> ROW_MAPPER = (rs, rowNum) -> BookEntity.builder()
+        .isbn(rs.getString("isbn"))
+        .title(rs.getString("title"))
+        .author(rs.getObject("author_id") == null ? null : AuthorEntity.builder()
+            .id(rs.getLong("author_id"))
+            .build())
+        .version(rs.getLong("version"))
+        .build();
+
+    private final JdbcTemplate     jdbcTemplate;
+
+    private final DatabasePlatform databasePlatform;
+
+    public BookUpsertRepositoryImpl(final JdbcTemplate jdbcTemplate, final DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    @Override
+    public Optional<Boolean> upsert(final BookEntity book) {
+        Long authorId = authorIdOf(book);
+
+        if (databasePlatform.isPostgres()) {
+            List<Long> versions = jdbcTemplate.queryForList(UPSERT, Long.class, book.getIsbn(), book.getTitle(),
+                authorId, authorId, authorId);
+            if (versions.isEmpty()) {
+                return Optional.empty();
+            }
+            book.setVersion(versions.get(0));
+            return Optional.of(book.getVersion() == 0);
+        }
+
+        // H2 only supports ON CONFLICT DO NOTHING, an update that touches no row falls through to an insert
+        List<Long> versions = jdbcTemplate.queryForList(databasePlatform.returning(UPDATE, "version"), Long.class,
+            book.getTitle(), authorId, book.getIsbn(), authorId, authorId);
+        if (!versions.isEmpty()) {
+            book.setVersion(versions.get(0));
+            return Optional.of(false);
+        }
+        if (jdbcTemplate.update(INSERT, book.getIsbn(), book.getTitle(), authorId, authorId, authorId) == 0) {
+            return Optional.empty();
+        }
+        book.setVersion(0);
+        return Optional.of(true);
+    }
+
+    @Override
+    public Optional<BookEntity> update(final BookEntity book, final Long version) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        assignments.put("title", book.getTitle());
+        assignments.put("author_id", authorIdOf(book));
+        return updateReturning(book.getIsbn(), assignments, version);
+    }
+
+    @Override
+    public Optional<BookEntity> partialUpdate(final BookEntity book, final Long version) {
+        // Only the supplied columns are written, a PATCH of the title leaves the foreign key alone
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        if (book.getTitle() != null) {
+            assignments.put("title", book.getTitle());
+        }
+        if (book.getAuthor() != null) {
+            assignments.put("author_id", authorIdOf(book));
+        }
+        return updateReturning(book.getIsbn(), assignments, version);
+    }
+
+    private Optional<BookEntity> updateReturning(final String isbn, final Map<String, Object> assignments,
+        final Long version) {
+        StringBuilder update = new StringBuilder("UPDATE books SET ");
+        List<Object> args = new ArrayList<>(assignments.size() + 2);
+        assignments.forEach((column, value) -> {
+            update.append(column)
+                .append(" = ?, ");
+            args.add(value);
+        });
+        update.append("version = version + 1 WHERE isbn = ?");
+        args.add(isbn);
+        if (version != null) {
+            update.append(" AND version = ?");
+            args.add(version);
+        }
+        if (assignments.get("author_id") != null) {
+            update.append(" AND EXISTS (SELECT 1 FROM authors WHERE id = ?)");
+            args.add(assignments.get("author_id"));
+        }
+        return jdbcTemplate.query(databasePlatform.returning(update.toString(), COLUMNS), ROW_MAPPER, args.toArray())
+            .stream()
+            .findFirst();
+    }
+
+    private static Long authorIdOf(final BookEntity book) {
+        return book.getAuthor() == null ? null : book.getAuthor()
+            .getId();
+    }
+
+}
@@ -0,0 +1,75 @@
+package dev.xgeorget.database.repositories;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import dev.xgeorget.database.domain.dto.ChangeDto;
+
+/**
+ * The changes outbox, written and read with plain JDBC since its rows are never managed entities.
+ */
+@Repository
+@Profile("!reactive")
+public class ChangeRepository {
+    private static final String               RESERVE    = "UPDATE changes_head SET seq = seq + ? WHERE id = 1";
+
+    private static final String               HEAD       = "SELECT seq FROM changes_head WHERE id = 1";
+
+    private static final String               INSERT     = "INSERT INTO changes "
+        + "(seq, entity_type, entity_id, operation, changed_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String               FIND_AFTER = "SELECT seq, entity_type, entity_id, operation, changed_at "
+        + "FROM changes WHERE seq > ? ORDER BY seq LIMIT ?";
+
+    private static final RowMapper<ChangeDto> ROW_MAPPER = (rs, rowNum) -> new ChangeDto(rs.getLong("seq"),
+        ChangeDto.EntityType.valueOf(rs.getString("entity_type")), rs.getString("entity_id"),
+        ChangeDto.Operation.valueOf(rs.getString("operation")), rs.getTimestamp("changed_at")
+            .toInstant());
+
+    private final JdbcTemplate                jdbcTemplate;
+
+    private final DatabasePlatform            databasePlatform;
+
+    public ChangeRepository(final JdbcTemplate jdbcTemplate, final DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    /**
+     * Reserves {@code count} sequence numbers, the head row stays locked until the transaction ends.
+     *
+     * @return the last reserved sequence number
+     */
+    public long reserve(final int count) {
+        return jdbcTemplate.queryForObject(databasePlatform.returning(RESERVE, "seq"), Long.class, count);
+    }
+
+    public void insert(final List<ChangeDto> changes) {
+        jdbcTemplate.batchUpdate(INSERT, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.seq());
+            ps.setString(2, change.entityType()
+                .name());
+            ps.setString(3, change.entityId());
+            ps.setString(4, change.operation()
+                .name());
+            ps.setTimestamp(5, Timestamp.from(change.changedAt()));
+        });
+    }
+
+    /**
+     * The sequence number of the last committed change, changes committed later are numbered after it.
+     */
+    public long head() {
+        return jdbcTemplate.queryForObject(HEAD, Long.class);
+    }
+
+    public List<ChangeDto> findAfter(final long seq, final int limit) {
+        return jdbcTemplate.query(FIND_AFTER, ROW_MAPPER, seq, limit);
+    }
+
+}
@@ -0,0 +1,50 @@
+package dev.xgeorget.database.repositories;
+
+import java.sql.DatabaseMetaData;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells native statements whether Postgres-only syntax is available, tests run on H2.
+ */
+@Component
+@Profile("!reactive")
+public class DatabasePlatform {
+    private final DataSource dataSource;
+
+    private volatile Boolean postgres;
+
+    public DatabasePlatform(final DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public boolean isPostgres() {
+        if (postgres == null) {
+            try {
+                String productName = JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName);
+                postgres = "PostgreSQL".equals(productName);
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Could not determine the database platform", e);
+            }
+        }
+        return postgres;
+    }
+
+    /**
+     * Makes an UPDATE return the rows it wrote in the same round trip, through RETURNING on Postgres and a FINAL TABLE
+     * query on H2.
+     */
+    public String returning(final String update, final String columns) {
+        if (isPostgres()) {
+            return update + " RETURNING " + columns;
+        }
+        return "SELECT " + columns + " FROM FINAL TABLE (" + update + ")";
+    }
+
+}
@@ -0,0 +1,10 @@
+package dev.xgeorget.database.repositories;
+
+/**
+ * A title search hit, ordered by descending rank and then by ISBN.
+ */
+public interface RankedIsbn {
+    String getIsbn();
+
+    Float getRank();
+}
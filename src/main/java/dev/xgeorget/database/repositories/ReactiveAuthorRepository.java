@@ -0,0 +1,69 @@
+package dev.xgeorget.database.repositories;
+
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of authors, for the reactive profile.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveAuthorRepository {
+    private static final String              SELECT     = "SELECT a.id, a.name, a.age FROM authors a ";
+
+    private static final Map<String, String> SORTABLE   = Map.of("id", "a.id", "name", "a.name", "age", "a.age");
+
+    // Rows are requested from the database as the subscriber asks for them
+    private static final int                 FETCH_SIZE = 500;
+
+    private final DatabaseClient             databaseClient;
+
+    public ReactiveAuthorRepository(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<AuthorEntity> findById(final Long id) {
+        return databaseClient.sql(SELECT + "WHERE a.id = :id")
+            .bind("id", id)
+            .map(ReactiveAuthorRepository::toAuthor)
+            .one();
+    }
+
+    public Flux<AuthorEntity> findAll(final Pageable pageable) {
+        return databaseClient.sql(SELECT + ReactiveSql.orderBy(pageable.getSort(), SORTABLE, "a.id")
+            + ReactiveSql.limit(pageable))
+            .map(ReactiveAuthorRepository::toAuthor)
+            .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM authors")
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+
+    public Flux<AuthorEntity> streamAll() {
+        return databaseClient.sql(SELECT + "ORDER BY a.id")
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(ReactiveAuthorRepository::toAuthor)
+            .all();
+    }
+
+    private static AuthorEntity toAuthor(final Readable row) {
+        return AuthorEntity.builder()
+            .id(row.get("id", Long.class))
+            .name(row.get("name", String.class))
+            .age(row.get("age", Integer.class))
+            .build();
+    }
+
+}
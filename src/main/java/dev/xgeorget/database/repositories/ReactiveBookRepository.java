@@ -0,0 +1,85 @@
+package dev.xgeorget.database.repositories;
+
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of books with their author, for the reactive profile.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveBookRepository {
+    private static final String              SELECT     = "SELECT b.isbn, b.title, a.id AS author_id, "
+        + "a.name AS author_name, a.age AS author_age FROM books b LEFT JOIN authors a ON a.id = b.author_id ";
+
+    private static final Map<String, String> SORTABLE   = Map.of("isbn", "b.isbn", "title", "b.title");
+
+    // Rows are requested from the database as the subscriber asks for them
+    private static final int                 FETCH_SIZE = 500;
+
+    private final DatabaseClient             databaseClient;
+
+    public ReactiveBookRepository(final DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<BookEntity> findById(final String isbn) {
+        return databaseClient.sql(SELECT + "WHERE b.isbn = :isbn")
+            .bind("isbn", isbn)
+            .map(ReactiveBookRepository::toBook)
+            .one();
+    }
+
+    public Flux<BookEntity> findAll(final Pageable pageable) {
+        return databaseClient.sql(SELECT + ReactiveSql.orderBy(pageable.getSort(), SORTABLE, "b.isbn")
+            + ReactiveSql.limit(pageable))
+            .map(ReactiveBookRepository::toBook)
+            .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM books")
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+
+    public Flux<BookEntity> findAfter(final String isbn, final int limit) {
+        return databaseClient.sql(SELECT + "WHERE b.isbn > :isbn ORDER BY b.isbn LIMIT :limit")
+            .bind("isbn", isbn)
+            .bind("limit", limit)
+            .map(ReactiveBookRepository::toBook)
+            .all();
+    }
+
+    public Flux<BookEntity> streamAll() {
+        return databaseClient.sql(SELECT + "ORDER BY b.isbn")
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(ReactiveBookRepository::toBook)
+            .all();
+    }
+
+    private static BookEntity toBook(final Readable row) {
+        Long authorId = row.get("author_id", Long.class);
+        AuthorEntity author = authorId == null ? null : AuthorEntity.builder()
+            .id(authorId)
+            .name(row.get("author_name", String.class))
+            .age(row.get("author_age", Integer.class))
+            .build();
+        return BookEntity.builder()
+            .isbn(row.get("isbn", String.class))
+            .title(row.get("title", String.class))
+            .author(author)
+            .build();
+    }
+
+}
@@ -0,0 +1,36 @@
+package dev.xgeorget.database.repositories;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * ORDER BY and LIMIT clauses for the reactive repositories, which build their SQL by hand.
+ */
+final class ReactiveSql {
+    private ReactiveSql() {
+    }
+
+    /**
+     * Only whitelisted properties reach the SQL. The key column always comes last so that pages are stable.
+     */
+    static String orderBy(final Sort sort, final Map<String, String> sortable, final String keyColumn) {
+        String orders = sort.stream()
+            .map(order -> {
+                String column = sortable.get(order.getProperty());
+                if (column == null) {
+                    throw new IllegalArgumentException("Cannot sort by " + order.getProperty());
+                }
+                return column + (order.isAscending() ? " ASC" : " DESC");
+            })
+            .collect(Collectors.joining(", "));
+        return "ORDER BY " + (orders.isEmpty() ? keyColumn : orders + ", " + keyColumn);
+    }
+
+    static String limit(final Pageable pageable) {
+        return pageable.isPaged() ? " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset() : "";
+    }
+
+}
@@ -2,19 +2,54 @@ package dev.xgeorget.database.services;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import dev.xgeorget.database.domain.dto.AuthorViewDto;
 import dev.xgeorget.database.domain.entities.AuthorEntity;
 
 public interface AuthorService {
     AuthorEntity save(AuthorEntity author);
 
+    /**
+     * Creates all authors in one transaction, ids supplied by the caller are ignored.
+     */
+    List<AuthorEntity> createAll(List<AuthorEntity> authors);
+
     List<AuthorEntity> findAll();
 
+    Page<AuthorEntity> findAll(Pageable pageable);
+
+    /**
+     * Same page as {@link #findAll(Pageable)}, projected for reading without loading entities.
+     */
+    Page<AuthorViewDto> findAllViews(Pageable pageable);
+
+    void streamAll(Consumer<AuthorEntity> consumer);
+
     Optional<AuthorEntity> findById(Long id);
 
     boolean isExists(Long id);
 
-    AuthorEntity partialUpdate(Long id, AuthorEntity authorEntity);
+    /**
+     * Replaces the name and age of the author in one statement.
+     *
+     * @param version the version the author must be at, null for any
+     * @return the updated author, empty if it does not exist
+     * @throws dev.xgeorget.database.utils.PreconditionFailedException if the author is at another version
+     */
+    Optional<AuthorEntity> update(Long id, AuthorEntity authorEntity, Long version);
+
+    /**
+     * Writes the non-null fields of the author in one statement.
+     *
+     * @param version the version the author must be at, null for any
+     * @return the updated author, empty if it does not exist
+     * @throws dev.xgeorget.database.utils.PreconditionFailedException if the author is at another version
+     */
+    Optional<AuthorEntity> partialUpdate(Long id, AuthorEntity authorEntity, Long version);
 
     void delete(Long id);
 }
@@ -0,0 +1,24 @@
+package dev.xgeorget.database.services;
+
+import java.util.List;
+
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.repositories.RankedIsbn;
+
+/**
+ * Full-text search over book titles. Every query term has to appear in the title.
+ */
+public interface BookSearchService {
+    /**
+     * Hits ranked below {@code afterRank}, or equal to it with a greater ISBN. Pass {@link Float#POSITIVE_INFINITY}
+     * and an empty ISBN for the first page.
+     */
+    List<RankedIsbn> search(String query, float afterRank, String afterIsbn, int limit);
+
+    /**
+     * Called once the book is committed, engines that keep no index of their own ignore it.
+     */
+    void index(BookEntity book);
+
+    void remove(String isbn);
+}
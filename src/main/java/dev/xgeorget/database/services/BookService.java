@@ -1,25 +1,80 @@
 package dev.xgeorget.database.services;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import dev.xgeorget.database.domain.dto.AuthorBookDto;
+import dev.xgeorget.database.domain.dto.BookViewDto;
 import dev.xgeorget.database.domain.entities.BookEntity;
 
 public interface BookService {
     BookEntity createUpdateBook(String isbn, BookEntity book);
 
+    /**
+     * Creates or replaces the book in a single statement.
+     *
+     * @return true if the book was created
+     */
+    boolean upsert(String isbn, BookEntity book);
+
+    /**
+     * Creates or replaces all books in one transaction.
+     *
+     * @return for each ISBN, in input order, whether the book was created
+     */
+    Map<String, Boolean> bulkUpsert(List<BookEntity> books);
+
     List<BookEntity> findAll();
 
     Page<BookEntity> findAll(Pageable pageable);
 
+    List<BookEntity> findAfter(String isbn, int limit);
+
+    /**
+     * Same page as {@link #findAll(Pageable)}, projected for reading without loading entities.
+     */
+    Page<BookViewDto> findAllViews(Pageable pageable);
+
+    /**
+     * Same rows as {@link #findAfter(String, int)}, projected for reading without loading entities.
+     */
+    List<BookViewDto> findViewsAfter(String isbn, int limit);
+
+    List<AuthorBookDto> findByAuthorAfter(Long authorId, String isbn, int limit);
+
+    void streamAll(Consumer<BookEntity> consumer);
+
+    /**
+     * The books that exist among the given ISBNs, in no particular order.
+     */
+    List<BookEntity> findAllByIsbn(Collection<String> isbns);
+
     Optional<BookEntity> findByIsbn(String isbn);
 
     boolean isExists(String isbn);
 
-    BookEntity partialUpdate(String isbn, BookEntity bookEntity);
+    /**
+     * Replaces the title and author of an existing book in one statement.
+     *
+     * @param version the version the book must be at, null for any
+     * @throws dev.xgeorget.database.utils.PreconditionFailedException if there is no such book at that version
+     */
+    BookEntity update(String isbn, BookEntity book, Long version);
+
+    /**
+     * Writes the non-null fields of the book in one statement.
+     *
+     * @param version the version the book must be at, null for any
+     * @return the updated book, empty if it does not exist
+     * @throws dev.xgeorget.database.utils.PreconditionFailedException if the book is at another version
+     */
+    Optional<BookEntity> partialUpdate(String isbn, BookEntity bookEntity, Long version);
 
     void delete(String isbn);
 }
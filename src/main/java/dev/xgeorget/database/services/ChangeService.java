@@ -0,0 +1,26 @@
+package dev.xgeorget.database.services;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import dev.xgeorget.database.domain.dto.ChangeDto;
+
+public interface ChangeService {
+    /**
+     * Appends a change to the outbox as part of the current transaction, it is numbered when the transaction
+     * commits.
+     *
+     * @throws IllegalStateException if no transaction is active
+     */
+    void record(ChangeDto.EntityType entityType, Object entityId, ChangeDto.Operation operation);
+
+    /**
+     * The committed changes numbered after {@code seq}, in order.
+     */
+    List<ChangeDto> findAfter(long seq, int limit);
+
+    /**
+     * Completes once the next transaction that recorded changes in this instance has committed.
+     */
+    CompletableFuture<Void> nextCommit();
+}
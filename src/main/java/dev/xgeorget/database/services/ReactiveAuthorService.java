@@ -0,0 +1,16 @@
+package dev.xgeorget.database.services;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAuthorService {
+    Mono<Page<AuthorEntity>> findAll(Pageable pageable);
+
+    Flux<AuthorEntity> streamAll();
+
+    Mono<AuthorEntity> findById(Long id);
+}
@@ -0,0 +1,18 @@
+package dev.xgeorget.database.services;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import dev.xgeorget.database.domain.entities.BookEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookService {
+    Mono<Page<BookEntity>> findAll(Pageable pageable);
+
+    Flux<BookEntity> findAfter(String isbn, int limit);
+
+    Flux<BookEntity> streamAll();
+
+    Mono<BookEntity> findByIsbn(String isbn);
+}
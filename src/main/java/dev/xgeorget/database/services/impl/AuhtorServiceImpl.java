@@ -2,31 +2,67 @@ package dev.xgeorget.database.services.impl;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import dev.xgeorget.database.domain.dto.AuthorViewDto;
+import dev.xgeorget.database.domain.dto.ChangeDto;
 import dev.xgeorget.database.domain.entities.AuthorEntity;
 import dev.xgeorget.database.repositories.AuthorRepository;
 import dev.xgeorget.database.services.AuthorService;
+import dev.xgeorget.database.services.ChangeService;
+import dev.xgeorget.database.utils.PreconditionFailedException;
+import jakarta.persistence.EntityManager;
 
 @Service
+@Profile("!reactive")
 public class AuhtorServiceImpl implements AuthorService {
+    // Matches the fetch size of AuthorRepository.streamAll
+    private static final int STREAM_CLEAR_INTERVAL = 500;
 
     private AuthorRepository authorRepository;
 
-    public AuhtorServiceImpl(AuthorRepository authorRepository) {
+    private ChangeService    changeService;
+
+    private EntityManager    entityManager;
+
+    public AuhtorServiceImpl(AuthorRepository authorRepository, ChangeService changeService,
+            EntityManager entityManager) {
         this.authorRepository = authorRepository;
+        this.changeService = changeService;
+        this.entityManager = entityManager;
     }
 
     @Override
+    @Transactional
     public AuthorEntity save(AuthorEntity author) {
-        return authorRepository.save(author);
+        AuthorEntity savedAuthor = authorRepository.save(author);
+        changeService.record(ChangeDto.EntityType.AUTHOR, savedAuthor.getId(), ChangeDto.Operation.UPSERT);
+        return savedAuthor;
+    }
 
+    @Override
+    @Transactional
+    public List<AuthorEntity> createAll(List<AuthorEntity> authors) {
+        // Inserts are sent in JDBC batches at flush, ids come from the pooled sequence allocation
+        for (AuthorEntity author : authors) {
+            author.setId(null);
+            entityManager.persist(author);
+            changeService.record(ChangeDto.EntityType.AUTHOR, author.getId(), ChangeDto.Operation.UPSERT);
+        }
+        return authors;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AuthorEntity> findAll() {
         return StreamSupport.stream(authorRepository.findAll()
                 .spliterator(), false)
@@ -34,34 +70,79 @@ public class AuhtorServiceImpl implements AuthorService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Page<AuthorEntity> findAll(Pageable pageable) {
+        return authorRepository.findAll(pageable);
+    }
+
+    // A read-only transaction switches the session to FlushMode.MANUAL, there is nothing to dirty-check anyway
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AuthorViewDto> findAllViews(Pageable pageable) {
+        return authorRepository.findAllViews(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<AuthorEntity> consumer) {
+        try (Stream<AuthorEntity> authors = authorRepository.streamAll()) {
+            int streamed = 0;
+            for (AuthorEntity author : (Iterable<AuthorEntity>) authors::iterator) {
+                consumer.accept(author);
+                // Streamed rows would otherwise stay managed until the end of the transaction
+                if (++streamed % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<AuthorEntity> findById(Long id) {
         return authorRepository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean isExists(Long id) {
         return authorRepository.existsById(id);
 
     }
 
     @Override
-    public AuthorEntity partialUpdate(Long id, AuthorEntity authorEntity) {
+    @Transactional
+    public Optional<AuthorEntity> update(Long id, AuthorEntity authorEntity, Long version) {
+        authorEntity.setId(id);
+        NativeWrites.lockCachedEntity(entityManager, AuthorEntity.class, id);
+        return updated(id, version, authorRepository.update(authorEntity, version));
+    }
 
+    @Override
+    @Transactional
+    public Optional<AuthorEntity> partialUpdate(Long id, AuthorEntity authorEntity, Long version) {
         authorEntity.setId(id);
-        return authorRepository.findById(id)
-                .map(existingAuthor -> {
-                    Optional.ofNullable(authorEntity.getName())
-                            .ifPresent(existingAuthor::setName);
-                    Optional.ofNullable(authorEntity.getAge())
-                            .ifPresent(existingAuthor::setAge);
-                    return authorRepository.save(existingAuthor);
-                })
-                .orElseThrow(() -> new RuntimeException("Author does not exist"));
+        NativeWrites.lockCachedEntity(entityManager, AuthorEntity.class, id);
+        return updated(id, version, authorRepository.partialUpdate(authorEntity, version));
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         authorRepository.deleteById(id);
+        changeService.record(ChangeDto.EntityType.AUTHOR, id, ChangeDto.Operation.DELETE);
+    }
+
+    private Optional<AuthorEntity> updated(Long id, Long version, Optional<AuthorEntity> author) {
+        if (author.isEmpty()) {
+            // Nothing else is looked up on the way in, telling a conflict from a missing author is left to this path
+            if (version != null && authorRepository.existsById(id)) {
+                throw new PreconditionFailedException("Author " + id + " is no longer at version " + version);
+            }
+            return author;
+        }
+        changeService.record(ChangeDto.EntityType.AUTHOR, id, ChangeDto.Operation.UPSERT);
+        return author;
     }
 
 }
@@ -0,0 +1,227 @@
+package dev.xgeorget.database.services.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.xgeorget.database.datasource.PrimaryStickinessFilter;
+import dev.xgeorget.database.domain.dto.ChangeDto;
+import dev.xgeorget.database.repositories.BookRepository;
+import dev.xgeorget.database.repositories.ChangeRepository;
+import dev.xgeorget.database.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Tells the ISBNs that were certainly never written from those that may exist, so that lookups of unknown books are
+ * answered without a query. The Bloom filter is filled from a scan of the books table once the application is ready
+ * and again every {@code books.isbn-filter.rebuild-interval}, which is also what drops the ISBNs of deleted books.
+ * Books written in this instance are added as they are written, those written through other instances are read from
+ * the change feed every {@code books.isbn-filter.poll-interval}, until then they may be reported absent like a
+ * lagging replica would. Reads carrying the read-your-writes cookie bypass the filter, the client's write may have
+ * gone through another instance. Writes do not, a PATCH of an unknown ISBN is still answered here. Until the first scan has finished, which runs in the background once the
+ * application is ready, every ISBN may exist.
+ *
+ * <p>
+ * {@code books.isbn.filter} counts the lookups by result: {@code absent} were answered by the filter alone,
+ * {@code false_positive} passed it but found no book. The share of false positives among both is the false positive
+ * rate actually seen, {@code books.isbn.filter.expected.false.positives} the one expected from the fill.
+ */
+@Service
+@Profile("!reactive")
+public class BookExistenceFilter implements DisposableBean {
+    private static final Logger       LOG        = LoggerFactory.getLogger(BookExistenceFilter.class);
+
+    private static final int          POLL_BATCH = 1000;
+
+    private BookRepository            bookRepository;
+
+    private ChangeRepository          changeRepository;
+
+    private TransactionTemplate       transactionTemplate;
+
+    private boolean                   enabled;
+
+    private double                    falsePositiveRate;
+
+    private Duration                  rebuildInterval;
+
+    private Duration                  pollInterval;
+
+    private Counter                   absent;
+
+    private Counter                   present;
+
+    private Counter                   falsePositive;
+
+    private volatile BloomFilter      current;
+
+    // Written books also go to the filter being rebuilt, the scan may have started before they were committed
+    private volatile BloomFilter      building;
+
+    // Last change read from the feed, -1 until the first scan
+    private final AtomicLong          seq        = new AtomicLong(-1);
+
+    private ScheduledExecutorService  scheduler;
+
+    public BookExistenceFilter(BookRepository bookRepository, ChangeRepository changeRepository,
+        PlatformTransactionManager transactionManager, MeterRegistry registry,
+        @Value("${books.isbn-filter.enabled:true}") boolean enabled,
+        @Value("${books.isbn-filter.false-positive-rate:0.01}") double falsePositiveRate,
+        @Value("${books.isbn-filter.rebuild-interval:6h}") Duration rebuildInterval,
+        @Value("${books.isbn-filter.poll-interval:1s}") Duration pollInterval) {
+        this.bookRepository = bookRepository;
+        this.changeRepository = changeRepository;
+        // Not read-only, a replica could miss books the change feed is already past
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildInterval = rebuildInterval;
+        this.pollInterval = pollInterval;
+        this.absent = lookups(registry, "absent");
+        this.present = lookups(registry, "present");
+        this.falsePositive = lookups(registry, "false_positive");
+        Gauge.builder("books.isbn.filter.expected.false.positives", this,
+            filter -> filter.current == null ? Double.NaN : filter.current.expectedFalsePositiveRate())
+            .description("False positive rate expected from the keys added since the last rebuild")
+            .register(registry);
+        Gauge.builder("books.isbn.filter.keys", this,
+            filter -> filter.current == null ? Double.NaN : filter.current.insertions())
+            .description("Keys added since the last rebuild")
+            .register(registry);
+    }
+
+    private static Counter lookups(MeterRegistry registry, String result) {
+        return Counter.builder("books.isbn.filter")
+            .description("Book lookups by what the ISBN existence filter answered")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // One thread each, a long scan must not hold back the books written through other instances
+        scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "isbn-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The first scan too, readiness would otherwise wait for the whole table
+        scheduler.scheduleWithFixedDelay(() -> run(this::rebuild), 0, rebuildInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> run(this::poll), pollInterval.toMillis(), pollInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * False only if no book with this ISBN was written, as far as this instance has seen.
+     */
+    public boolean mightContain(String isbn) {
+        BloomFilter filter = current;
+        if (filter == null || PrimaryStickinessFilter.isStickyRead() || filter.mightContain(isbn)) {
+            return true;
+        }
+        absent.increment();
+        return false;
+    }
+
+    /**
+     * Records whether a lookup that {@link #mightContain} let through found its book.
+     */
+    public void recordLookup(boolean found) {
+        // Lookups that bypassed the filter would count as its false positives
+        if (current != null && !PrimaryStickinessFilter.isStickyRead()) {
+            (found ? present : falsePositive).increment();
+        }
+    }
+
+    /**
+     * Called when a book is written, before its transaction commits so that no reader misses it and again after,
+     * once a rebuild started in between scans past it.
+     */
+    public void add(String isbn) {
+        // In this order a rebuild that has swapped its filter in is never missed
+        BloomFilter next = building;
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.add(isbn);
+        }
+        if (next != null) {
+            next.add(isbn);
+        }
+    }
+
+    public synchronized void rebuild() {
+        try {
+            current = transactionTemplate.execute(status -> {
+                // Room for the books written until the next rebuild
+                long books = bookRepository.count();
+                BloomFilter next = BloomFilter.create(books + books / 4 + 1024, falsePositiveRate);
+                building = next;
+                // Changes committed after the head are scanned or polled, or both
+                seq.compareAndSet(-1, changeRepository.head());
+                try (Stream<String> isbns = bookRepository.streamIsbns()) {
+                    isbns.forEach(next::add);
+                }
+                return next;
+            });
+        } finally {
+            building = null;
+        }
+    }
+
+    void poll() {
+        long after = seq.get();
+        if (after < 0) {
+            return;
+        }
+        List<ChangeDto> changes;
+        do {
+            changes = changeRepository.findAfter(after, POLL_BATCH);
+            for (ChangeDto change : changes) {
+                if (change.entityType() == ChangeDto.EntityType.BOOK
+                    && change.operation() == ChangeDto.Operation.UPSERT) {
+                    add(change.entityId());
+                }
+                after = change.seq();
+            }
+            seq.set(after);
+        } while (changes.size() == POLL_BATCH);
+    }
+
+    // An exception would cancel the later runs of a scheduled task
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not update the ISBN existence filter", e);
+        }
+    }
+
+}
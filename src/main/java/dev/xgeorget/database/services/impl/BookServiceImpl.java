@@ -1,34 +1,149 @@
 package dev.xgeorget.database.services.impl;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import dev.xgeorget.database.domain.dto.AuthorBookDto;
+import dev.xgeorget.database.domain.dto.BookViewDto;
+import dev.xgeorget.database.domain.dto.ChangeDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
 import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.repositories.AuthorRepository;
 import dev.xgeorget.database.repositories.BookRepository;
+import dev.xgeorget.database.services.BookSearchService;
 import dev.xgeorget.database.services.BookService;
+import dev.xgeorget.database.services.ChangeService;
+import dev.xgeorget.database.utils.PreconditionFailedException;
+import jakarta.persistence.EntityManager;
 
 @Service
+@Profile("!reactive")
 public class BookServiceImpl implements BookService {
+    // Matches the fetch size of BookRepository.streamAll
+    private static final int    STREAM_CLEAR_INTERVAL = 500;
 
-    private BookRepository bookRepository;
+    private BookRepository      bookRepository;
 
-    public BookServiceImpl(BookRepository bookRepository) {
+    private AuthorRepository    authorRepository;
+
+    private BookSearchService   bookSearchService;
+
+    private ChangeService       changeService;
+
+    private BookExistenceFilter bookExistenceFilter;
+
+    private EntityManager       entityManager;
+
+    public BookServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository,
+        BookSearchService bookSearchService, ChangeService changeService, BookExistenceFilter bookExistenceFilter,
+        EntityManager entityManager) {
         this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.bookSearchService = bookSearchService;
+        this.changeService = changeService;
+        this.bookExistenceFilter = bookExistenceFilter;
+        this.entityManager = entityManager;
     }
 
     @Override
+    @Transactional
     public BookEntity createUpdateBook(String isbn, BookEntity book) {
+        upsert(isbn, book);
+        return book;
+    }
+
+    @Override
+    @Transactional
+    public boolean upsert(String isbn, BookEntity book) {
         book.setIsbn(isbn);
-        return bookRepository.save(book);
+        bookExistenceFilter.add(isbn);
+        // The native upsert bypasses Hibernate, so the second-level cache entry has to be handled by hand
+        NativeWrites.lockCachedEntity(entityManager, BookEntity.class, isbn);
+        boolean created = withAuthor(book, () -> bookRepository.upsert(book)).orElseThrow();
+        managedAuthor(book);
+        changeService.record(ChangeDto.EntityType.BOOK, isbn, ChangeDto.Operation.UPSERT);
+        afterCommit(() -> {
+            bookExistenceFilter.add(isbn);
+            bookSearchService.index(book);
+        });
+        return created;
     }
 
     @Override
+    @Transactional
+    public Map<String, Boolean> bulkUpsert(List<BookEntity> books) {
+        // One query for the books that already exist, they are then updated through dirty checking
+        Map<String, BookEntity> managedBooks = new LinkedHashMap<>();
+        bookRepository.findAllWithAuthorsByIsbnIn(books.stream()
+            .map(BookEntity::getIsbn)
+            .collect(Collectors.toSet()))
+            .forEach(book -> managedBooks.put(book.getIsbn(), book));
+        Set<Long> existingAuthorIds = authorRepository.findExistingIds(books.stream()
+            .map(BookEntity::getAuthor)
+            .filter(Objects::nonNull)
+            .map(AuthorEntity::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet()));
+
+        Map<String, Boolean> created = new LinkedHashMap<>();
+        for (BookEntity book : books) {
+            AuthorEntity author = book.getAuthor();
+            if (author != null && existingAuthorIds.contains(author.getId())) {
+                // Known authors are referenced without being loaded
+                author = entityManager.getReference(AuthorEntity.class, author.getId());
+            } else if (author != null) {
+                // Like a single PUT, an unknown author is created. Persisting it here rather than through the
+                // cascade assigns its id before the change is recorded.
+                author.setId(null);
+                entityManager.persist(author);
+                changeService.record(ChangeDto.EntityType.AUTHOR, author.getId(), ChangeDto.Operation.UPSERT);
+            }
+
+            BookEntity managedBook = managedBooks.get(book.getIsbn());
+            if (managedBook == null) {
+                bookExistenceFilter.add(book.getIsbn());
+                book.setAuthor(author);
+                // persist rather than save, which would merge and SELECT each assigned ISBN first
+                entityManager.persist(book);
+                managedBooks.put(book.getIsbn(), book);
+                created.putIfAbsent(book.getIsbn(), true);
+            } else {
+                managedBook.setTitle(book.getTitle());
+                managedBook.setAuthor(author);
+                created.putIfAbsent(book.getIsbn(), false);
+            }
+            changeService.record(ChangeDto.EntityType.BOOK, book.getIsbn(), ChangeDto.Operation.UPSERT);
+        }
+        afterCommit(() -> managedBooks.values()
+            .forEach(book -> {
+                bookExistenceFilter.add(book.getIsbn());
+                bookSearchService.index(book);
+            }));
+        return created;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BookEntity> findAll() {
         return StreamSupport.stream(bookRepository.findAll()
             .spliterator(), false)
@@ -36,37 +151,177 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookEntity> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable);
+        return bookRepository.findAllWithAuthors(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookEntity> findAfter(String isbn, int limit) {
+        return bookRepository.findAfter(isbn, PageRequest.ofSize(limit));
     }
 
+    // A read-only transaction switches the session to FlushMode.MANUAL, there is nothing to dirty-check anyway
     @Override
+    @Transactional(readOnly = true)
+    public Page<BookViewDto> findAllViews(Pageable pageable) {
+        return bookRepository.findAllViews(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookViewDto> findViewsAfter(String isbn, int limit) {
+        return bookRepository.findViewsAfter(isbn, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuthorBookDto> findByAuthorAfter(Long authorId, String isbn, int limit) {
+        return bookRepository.findByAuthorAfter(authorId, isbn, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<BookEntity> consumer) {
+        try (Stream<BookEntity> books = bookRepository.streamAll()) {
+            int streamed = 0;
+            for (BookEntity book : (Iterable<BookEntity>) books::iterator) {
+                consumer.accept(book);
+                // Streamed rows would otherwise stay managed until the end of the transaction
+                if (++streamed % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookEntity> findAllByIsbn(Collection<String> isbns) {
+        return bookRepository.findAllWithAuthorsByIsbnIn(isbns);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<BookEntity> findByIsbn(String isbn) {
-        return bookRepository.findById(isbn);
+        if (!bookExistenceFilter.mightContain(isbn)) {
+            return Optional.empty();
+        }
+        Optional<BookEntity> book = bookRepository.findById(isbn);
+        bookExistenceFilter.recordLookup(book.isPresent());
+        return book;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean isExists(String isbn) {
-        return bookRepository.existsById(isbn);
+        if (!bookExistenceFilter.mightContain(isbn)) {
+            return false;
+        }
+        boolean exists = bookRepository.existsById(isbn);
+        bookExistenceFilter.recordLookup(exists);
+        return exists;
+    }
+
+    @Override
+    @Transactional
+    public BookEntity update(String isbn, BookEntity book, Long version) {
+        if (!bookExistenceFilter.mightContain(isbn)) {
+            throw new PreconditionFailedException("Book " + isbn + " does not exist");
+        }
+        book.setIsbn(isbn);
+        NativeWrites.lockCachedEntity(entityManager, BookEntity.class, isbn);
+        return withAuthor(book, () -> bookRepository.update(book, version))
+            .map(this::updated)
+            .orElseThrow(() -> new PreconditionFailedException(
+                "Book " + isbn + " does not exist at version " + version));
     }
 
     @Override
-    public BookEntity partialUpdate(String isbn, BookEntity bookEntity) {
+    @Transactional
+    public Optional<BookEntity> partialUpdate(String isbn, BookEntity bookEntity, Long version) {
+        // Before the write, whose unknown author would be created
+        if (!bookExistenceFilter.mightContain(isbn)) {
+            return Optional.empty();
+        }
         bookEntity.setIsbn(isbn);
-        return bookRepository.findById(isbn)
-            .map(existingBook -> {
-                Optional.ofNullable(bookEntity.getTitle())
-                    .ifPresent(existingBook::setTitle);
-                Optional.ofNullable(bookEntity.getAuthor())
-                    .ifPresent(existingBook::setAuthor);
-                return bookRepository.save(existingBook);
-            })
-            .orElseThrow(() -> new RuntimeException("Book does not exist"));
+        NativeWrites.lockCachedEntity(entityManager, BookEntity.class, isbn);
+        Optional<BookEntity> updatedBook = withAuthor(bookEntity,
+            () -> bookRepository.partialUpdate(bookEntity, version));
+        if (updatedBook.isEmpty()) {
+            // Nothing else is looked up on the way in, telling a conflict from a missing book is left to this path
+            if (version != null && bookRepository.existsById(isbn)) {
+                throw new PreconditionFailedException("Book " + isbn + " is no longer at version " + version);
+            }
+            // An author created for a book that does not exist is not kept
+            TransactionAspectSupport.currentTransactionStatus()
+                .setRollbackOnly();
+        }
+        return updatedBook.map(this::updated);
     }
 
     @Override
+    @Transactional
     public void delete(String isbn) {
         bookRepository.deleteById(isbn);
+        changeService.record(ChangeDto.EntityType.BOOK, isbn, ChangeDto.Operation.DELETE);
+        afterCommit(() -> bookSearchService.remove(isbn));
+    }
+
+    // Existing authors are only referenced, their details are changed through /authors. The statements write nothing
+    // for an author that does not exist, only then is it looked up and created and the write repeated.
+    private <T> Optional<T> withAuthor(BookEntity book, Supplier<Optional<T>> write) {
+        AuthorEntity author = book.getAuthor();
+        if (author != null && author.getId() == null) {
+            createAuthor(book);
+            return write.get();
+        }
+        Optional<T> written = write.get();
+        if (written.isEmpty() && author != null && !authorRepository.existsById(author.getId())) {
+            createAuthor(book);
+            written = write.get();
+        }
+        return written;
+    }
+
+    private void createAuthor(BookEntity book) {
+        AuthorEntity author = book.getAuthor();
+        author.setId(null);
+        book.setAuthor(authorRepository.save(author));
+        // The JDBC statements do not trigger an auto-flush, the author row has to exist before them
+        entityManager.flush();
+        changeService.record(ChangeDto.EntityType.AUTHOR, book.getAuthor()
+            .getId(), ChangeDto.Operation.UPSERT);
+    }
+
+    private BookEntity updated(BookEntity book) {
+        managedAuthor(book);
+        changeService.record(ChangeDto.EntityType.BOOK, book.getIsbn(), ChangeDto.Operation.UPSERT);
+        afterCommit(() -> bookSearchService.index(book));
+        return book;
+    }
+
+    // The author as stored rather than as sent, it was not written. This is usually a second-level cache hit.
+    private void managedAuthor(BookEntity book) {
+        if (book.getAuthor() != null) {
+            book.setAuthor(entityManager.find(AuthorEntity.class, book.getAuthor()
+                .getId()));
+        }
+    }
+
+    // Running once the rows are committed keeps a concurrent read from caching or indexing the old state again
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
 }
@@ -0,0 +1,96 @@
+package dev.xgeorget.database.services.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import dev.xgeorget.database.domain.dto.ChangeDto;
+import dev.xgeorget.database.repositories.ChangeRepository;
+import dev.xgeorget.database.services.ChangeService;
+import jakarta.persistence.EntityManager;
+
+@Service
+@Profile("!reactive")
+public class ChangeServiceImpl implements ChangeService {
+    private record PendingChange(ChangeDto.EntityType entityType, String entityId, ChangeDto.Operation operation,
+        Instant changedAt) {
+    }
+
+    private ChangeRepository                               changeRepository;
+
+    private EntityManager                                  entityManager;
+
+    private final AtomicReference<CompletableFuture<Void>> nextCommit = new AtomicReference<>(
+        new CompletableFuture<>());
+
+    public ChangeServiceImpl(ChangeRepository changeRepository, EntityManager entityManager) {
+        this.changeRepository = changeRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void record(ChangeDto.EntityType entityType, Object entityId, ChangeDto.Operation operation) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Changes can only be recorded inside a transaction");
+        }
+        @SuppressWarnings("unchecked")
+        List<PendingChange> pending = (List<PendingChange>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<PendingChange> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // Appended last, after the flush Hibernate would otherwise only run in the commit. The head row is
+                // then locked for the outbox insert and the commit alone, not for the writes of the transaction.
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (!readOnly) {
+                        entityManager.flush();
+                    }
+                    append(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(ChangeServiceImpl.this);
+                    if (status == STATUS_COMMITTED) {
+                        nextCommit.getAndSet(new CompletableFuture<>())
+                            .complete(null);
+                    }
+                }
+            });
+            pending = changes;
+        }
+        pending.add(new PendingChange(entityType, String.valueOf(entityId), operation, Instant.now()));
+    }
+
+    // Not read-only so that it stays on the primary, a replica could still miss the commit that woke the poll up
+    @Override
+    @Transactional
+    public List<ChangeDto> findAfter(long seq, int limit) {
+        return changeRepository.findAfter(seq, limit);
+    }
+
+    @Override
+    public CompletableFuture<Void> nextCommit() {
+        return nextCommit.get();
+    }
+
+    private void append(List<PendingChange> pending) {
+        long seq = changeRepository.reserve(pending.size()) - pending.size();
+        List<ChangeDto> changes = new ArrayList<>(pending.size());
+        for (PendingChange change : pending) {
+            changes.add(new ChangeDto(++seq, change.entityType(), change.entityId(), change.operation(),
+                change.changedAt()));
+        }
+        changeRepository.insert(changes);
+    }
+
+}
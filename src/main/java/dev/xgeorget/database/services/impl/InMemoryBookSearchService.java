@@ -0,0 +1,301 @@
+package dev.xgeorget.database.services.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.xgeorget.database.domain.dto.BookTitleDto;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.repositories.BookRepository;
+import dev.xgeorget.database.repositories.RankedIsbn;
+import dev.xgeorget.database.services.BookSearchService;
+import dev.xgeorget.database.utils.Isbn;
+import dev.xgeorget.database.utils.LongLongHashMap;
+
+/**
+ * Inverted index of title terms for databases without full-text search, used by the H2 tests. Terms are split and
+ * lowercased like the 'simple' text search configuration of Postgres. The rank is the share of the title made of
+ * query terms, which orders results like ts_rank does for short titles but does not produce the same numbers.
+ *
+ * <p>
+ * Books are numbered as they are indexed, the postings are sorted arrays of those numbers and the ISBNs are kept
+ * packed into longs, optionally off the heap with {@code books.search.memory.off-heap}. A book whose ISBN is not
+ * valid, which can only have been written before ISBNs were checked, is not indexed.
+ */
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name = "books.search.engine", havingValue = "memory")
+public class InMemoryBookSearchService implements BookSearchService {
+    private record Hit(String isbn, Float rank) implements RankedIsbn {
+        @Override
+        public String getIsbn() {
+            return isbn;
+        }
+
+        @Override
+        public Float getRank() {
+            return rank;
+        }
+    }
+
+    // The book numbers of one term, in increasing order
+    private static final class Postings {
+        private int[] books = new int[4];
+
+        private int   size;
+
+        private int indexOf(int book) {
+            return Arrays.binarySearch(books, 0, size, book);
+        }
+
+        private boolean contains(int book) {
+            return indexOf(book) >= 0;
+        }
+
+        // Books are mostly numbered in the order they are indexed, so this is usually an append
+        private void add(int book) {
+            int index = indexOf(book);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == books.length) {
+                books = Arrays.copyOf(books, size * 2);
+            }
+            System.arraycopy(books, index, books, index + 1, size - index);
+            books[index] = book;
+            size++;
+        }
+
+        private void remove(int book) {
+            int index = indexOf(book);
+            if (index >= 0) {
+                System.arraycopy(books, index + 1, books, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+
+    private static final Comparator<RankedIsbn> RANKED   = Comparator.comparing(RankedIsbn::getRank)
+        .reversed()
+        .thenComparing(RankedIsbn::getIsbn);
+
+    private final Map<String, Postings>         postings = new HashMap<>();
+
+    // Packed ISBN to book number, and back
+    private final LongLongHashMap               numbers;
+
+    private long[]                              isbns    = new long[1024];
+
+    // The title terms of each book number, null once it is free
+    private final List<List<String>>            terms    = new ArrayList<>();
+
+    private final BitSet                        free     = new BitSet();
+
+    private final ReadWriteLock                 lock     = new ReentrantReadWriteLock();
+
+    // Writes made while a rebuild scans, replayed once it is done since the scan may have read older rows. Null when
+    // no rebuild runs.
+    private List<Runnable>                      pending;
+
+    private BookRepository                      bookRepository;
+
+    private TransactionTemplate                 transactionTemplate;
+
+    public InMemoryBookSearchService(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+        @Value("${books.search.memory.off-heap:false}") boolean offHeap) {
+        this.bookRepository = bookRepository;
+        // Not read-only, a replica could miss books that were already indexed as they were written
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.numbers = new LongLongHashMap(1024, offHeap);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLocked(() -> pending = new ArrayList<>());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookTitleDto> books = bookRepository.streamTitles()) {
+                    books.forEach(book -> writeLocked(() -> indexTitle(book.isbn(), book.title())));
+                }
+            });
+        } finally {
+            writeLocked(() -> {
+                List<Runnable> writes = pending;
+                pending = null;
+                writes.forEach(Runnable::run);
+            });
+        }
+    }
+
+    @Override
+    public List<RankedIsbn> search(String query, float afterRank, String afterIsbn, int limit) {
+        Set<String> queryTerms = new HashSet<>(tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        Hit after = new Hit(afterIsbn, afterRank);
+
+        lock.readLock()
+            .lock();
+        try {
+            // Intersect starting from the rarest term
+            List<Postings> matches = new ArrayList<>();
+            for (String term : queryTerms) {
+                Postings books = postings.get(term);
+                if (books == null) {
+                    return List.of();
+                }
+                matches.add(books);
+            }
+            matches.sort(Comparator.comparingInt(books -> books.size));
+            Postings rarest = matches.get(0);
+            List<RankedIsbn> hits = new ArrayList<>();
+            for (int i = 0; i < rarest.size; i++) {
+                int book = rarest.books[i];
+                if (matches.stream()
+                    .allMatch(match -> match.contains(book))) {
+                    Hit hit = new Hit(Isbn.unpack(isbns[book]), rank(terms.get(book), queryTerms));
+                    if (RANKED.compare(hit, after) > 0) {
+                        hits.add(hit);
+                    }
+                }
+            }
+            hits.sort(RANKED);
+            return hits.size() > limit ? hits.subList(0, limit) : hits;
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    @Override
+    public void index(BookEntity book) {
+        String isbn = book.getIsbn();
+        String title = book.getTitle();
+        writeLocked(() -> {
+            if (pending != null) {
+                pending.add(() -> indexTitle(isbn, title));
+            }
+            indexTitle(isbn, title);
+        });
+    }
+
+    @Override
+    public void remove(String isbn) {
+        writeLocked(() -> {
+            if (pending != null) {
+                pending.add(() -> removeIsbn(isbn));
+            }
+            removeIsbn(isbn);
+        });
+    }
+
+    // Callers hold the write lock
+    private void indexTitle(String isbn, String title) {
+        long packed = Isbn.pack(isbn);
+        if (packed == 0) {
+            return;
+        }
+        int number = (int) numbers.get(packed, -1);
+        if (number < 0) {
+            number = allocate(packed);
+        } else {
+            removeTerms(number);
+        }
+        List<String> titleTerms = tokenize(title);
+        terms.set(number, titleTerms);
+        for (String term : titleTerms) {
+            postings.computeIfAbsent(term, key -> new Postings())
+                .add(number);
+        }
+    }
+
+    private void removeIsbn(String isbn) {
+        long packed = Isbn.pack(isbn);
+        int number = packed == 0 ? -1 : (int) numbers.get(packed, -1);
+        if (number >= 0) {
+            removeTerms(number);
+            terms.set(number, null);
+            numbers.remove(packed);
+            free.set(number);
+        }
+    }
+
+    private void writeLocked(Runnable action) {
+        lock.writeLock()
+            .lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock()
+                .unlock();
+        }
+    }
+
+    // Numbers of removed books are given out again first
+    private int allocate(long isbn) {
+        int number = free.nextSetBit(0);
+        if (number >= 0) {
+            free.clear(number);
+        } else {
+            number = terms.size();
+            terms.add(null);
+            if (number == isbns.length) {
+                isbns = Arrays.copyOf(isbns, number * 2);
+            }
+        }
+        isbns[number] = isbn;
+        numbers.put(isbn, number);
+        return number;
+    }
+
+    private void removeTerms(int number) {
+        for (String term : terms.get(number)) {
+            Postings books = postings.get(term);
+            if (books != null) {
+                books.remove(number);
+                if (books.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static float rank(List<String> titleTerms, Set<String> queryTerms) {
+        long matching = titleTerms.stream()
+            .filter(queryTerms::contains)
+            .count();
+        return (float) matching / titleTerms.size();
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT)
+            .split("[^\\p{L}\\p{N}]+"))
+            .filter(term -> !term.isEmpty())
+            .toList();
+    }
+
+}
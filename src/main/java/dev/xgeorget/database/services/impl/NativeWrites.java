@@ -0,0 +1,50 @@
+package dev.xgeorget.database.services.impl;
+
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keeps the second-level cache consistent with rows written by native statements, which Hibernate does not see.
+ */
+final class NativeWrites {
+    private NativeWrites() {
+    }
+
+    /**
+     * Locks the cache entry of the entity until the current transaction completes, call it before the statement.
+     * This is what Hibernate does around its own updates. An evict alone is not enough: a read that loaded the old
+     * row could put it back after the evict, where it would stay until it expires. While the entry is locked reads
+     * miss it, and once it is unlocked only sessions that started afterwards can cache the row again.
+     */
+    static void lockCachedEntity(EntityManager entityManager, Class<?> entityClass, Object id) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel()
+            .getEntityDescriptor(entityClass);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        if (cacheAccess == null) {
+            return;
+        }
+        Object key = cacheAccess.generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cacheAccess.evict(key);
+            return;
+        }
+        SoftLock lock = cacheAccess.lockItem(session, key, null);
+        // On rollback too, the lock would otherwise only end with its timeout
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cacheAccess.unlockItem(session, key, lock);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,40 @@
+package dev.xgeorget.database.services.impl;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.repositories.BookRepository;
+import dev.xgeorget.database.repositories.RankedIsbn;
+import dev.xgeorget.database.services.BookSearchService;
+
+/**
+ * Ranks with ts_rank over the GIN expression index, which Postgres keeps up to date on its own.
+ */
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name = "books.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresBookSearchService implements BookSearchService {
+    private BookRepository bookRepository;
+
+    public PostgresBookSearchService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    public List<RankedIsbn> search(String query, float afterRank, String afterIsbn, int limit) {
+        return bookRepository.searchTitles(query, afterRank, afterIsbn, limit);
+    }
+
+    @Override
+    public void index(BookEntity book) {
+    }
+
+    @Override
+    public void remove(String isbn) {
+    }
+
+}
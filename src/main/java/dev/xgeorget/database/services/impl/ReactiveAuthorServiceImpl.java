@@ -0,0 +1,41 @@
+package dev.xgeorget.database.services.impl;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.repositories.ReactiveAuthorRepository;
+import dev.xgeorget.database.services.ReactiveAuthorService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class ReactiveAuthorServiceImpl implements ReactiveAuthorService {
+    private ReactiveAuthorRepository authorRepository;
+
+    public ReactiveAuthorServiceImpl(ReactiveAuthorRepository authorRepository) {
+        this.authorRepository = authorRepository;
+    }
+
+    @Override
+    public Mono<Page<AuthorEntity>> findAll(Pageable pageable) {
+        return Mono.zip(authorRepository.findAll(pageable)
+            .collectList(), authorRepository.count())
+            .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2()));
+    }
+
+    @Override
+    public Flux<AuthorEntity> streamAll() {
+        return authorRepository.streamAll();
+    }
+
+    @Override
+    public Mono<AuthorEntity> findById(Long id) {
+        return authorRepository.findById(id);
+    }
+
+}
@@ -0,0 +1,46 @@
+package dev.xgeorget.database.services.impl;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.repositories.ReactiveBookRepository;
+import dev.xgeorget.database.services.ReactiveBookService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+    private ReactiveBookRepository bookRepository;
+
+    public ReactiveBookServiceImpl(ReactiveBookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    public Mono<Page<BookEntity>> findAll(Pageable pageable) {
+        return Mono.zip(bookRepository.findAll(pageable)
+            .collectList(), bookRepository.count())
+            .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2()));
+    }
+
+    @Override
+    public Flux<BookEntity> findAfter(String isbn, int limit) {
+        return bookRepository.findAfter(isbn, limit);
+    }
+
+    @Override
+    public Flux<BookEntity> streamAll() {
+        return bookRepository.streamAll();
+    }
+
+    @Override
+    public Mono<BookEntity> findByIsbn(String isbn) {
+        return bookRepository.findById(isbn);
+    }
+
+}
@@ -0,0 +1,102 @@
+package dev.xgeorget.database.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Set membership with false positives but no false negatives, in about 10 bits per key at a 1% false positive rate.
+ * Keys can be added concurrently but never removed. The bit positions are derived from one 64-bit hash of the key by
+ * double hashing.
+ */
+public final class BloomFilter {
+    private final AtomicLongArray bits;
+
+    private final long            bitCount;
+
+    private final int             hashCount;
+
+    private final LongAdder       insertions = new LongAdder();
+
+    private BloomFilter(final long bitCount, final int hashCount) {
+        this.bits = new AtomicLongArray(Math.toIntExact(bitCount / Long.SIZE));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Sized for {@code expectedInsertions} keys, the false positive rate grows past {@code falsePositiveRate} once
+     * more keys are added.
+     */
+    public static BloomFilter create(final long expectedInsertions, final double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1");
+        }
+        long keys = Math.max(expectedInsertions, 1);
+        double optimalBits = -keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bitCount = Math.max(Long.SIZE, ((long) Math.ceil(optimalBits) + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / keys * Math.log(2)));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    public void add(final CharSequence key) {
+        long hash = hash(key);
+        long increment = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * increment, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(final CharSequence key) {
+        long hash = hash(key);
+        long increment = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * increment, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keys added so far, counting a key added twice twice.
+     */
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * The false positive rate expected after {@link #insertions()} distinct keys.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) insertions() / bitCount), hashCount);
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    // FNV-1a over the UTF-16 code units, ISBNs differ in few characters so the result is mixed again
+    private static long hash(final CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // Finalizer of MurmurHash3
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+}
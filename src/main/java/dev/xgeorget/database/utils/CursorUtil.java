@@ -0,0 +1,32 @@
+package dev.xgeorget.database.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursors for keyset pagination, clients must send back exactly what they received.
+ */
+public final class CursorUtil {
+    private CursorUtil() {
+    }
+
+    public static String encode(final String key) {
+        return Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * An empty cursor starts from the beginning.
+     *
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode(String)}
+     */
+    public static String decode(final String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return "";
+        }
+        return new String(Base64.getUrlDecoder()
+            .decode(cursor), StandardCharsets.UTF_8);
+    }
+
+}
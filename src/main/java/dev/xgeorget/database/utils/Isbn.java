@@ -0,0 +1,145 @@
+package dev.xgeorget.database.utils;
+
+/**
+ * A valid ISBN-10 or ISBN-13 packed into a long without losing its text: the digits, where the hyphens were and
+ * which of the two it is. Unpacking gives back the exact string that was packed, so a packed ISBN can stand in for a
+ * book id, and two ISBNs pack to the same value exactly when their texts are equal. {@link #isbn13()} normalizes
+ * both forms to the same 13 digits.
+ *
+ * <p>
+ * An ISBN is digits separated by single hyphens, ten of them with an ISBN-10 check digit, where the last one may be
+ * {@code X}, or thirteen starting with 978 or 979 with an EAN-13 check digit.
+ */
+public record Isbn(long packed) {
+    // Bits 0 to 43 hold the 13 digits, or the first 9 digits of an ISBN-10 times 11 plus its check value
+    private static final long NUMBER_MASK  = (1L << 44) - 1;
+
+    // Bit 44 + i is set when a hyphen follows digit i
+    private static final int  HYPHENS_SHIFT = 44;
+
+    private static final long ISBN10        = 1L << 56;
+
+    public Isbn {
+        if (packed == 0 || pack(unpack(packed)) != packed) {
+            throw new IllegalArgumentException("Not a packed ISBN: " + packed);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a valid ISBN
+     */
+    public static Isbn parse(final String text) {
+        long packed = pack(text);
+        if (packed == 0) {
+            throw new IllegalArgumentException("Not a valid ISBN: " + text);
+        }
+        return new Isbn(packed);
+    }
+
+    public static boolean isValid(final String text) {
+        return pack(text) != 0;
+    }
+
+    /**
+     * The packed form of the text, 0 when it is not a valid ISBN. Allocates nothing.
+     */
+    public static long pack(final CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int length = text.length();
+        long number = 0;
+        long hyphens = 0;
+        int digits = 0;
+        // Weighted sums for both check digit algorithms, only one of them is used
+        int sum10 = 0;
+        int sum13 = 0;
+        int checkValue = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '-') {
+                if (digits == 0 || i == length - 1 || text.charAt(i - 1) == '-') {
+                    return 0;
+                }
+                hyphens |= 1L << (digits - 1);
+            } else if (c >= '0' && c <= '9' || c == 'X' && digits == 9 && i == length - 1) {
+                if (digits == 13) {
+                    return 0;
+                }
+                int value = c == 'X' ? 10 : c - '0';
+                if (digits == 9) {
+                    checkValue = value;
+                }
+                number = number * 10 + value % 10;
+                sum10 += (10 - digits) * value;
+                sum13 += (digits % 2 == 0 ? 1 : 3) * value;
+                digits++;
+            } else {
+                return 0;
+            }
+        }
+
+        if (digits == 10) {
+            if (sum10 % 11 != 0) {
+                return 0;
+            }
+            return ISBN10 | hyphens << HYPHENS_SHIFT | (number / 10 * 11 + checkValue);
+        }
+        if (digits == 13) {
+            long prefix = number / 10_000_000_000L;
+            if (sum13 % 10 != 0 || prefix != 978 && prefix != 979) {
+                return 0;
+            }
+            return hyphens << HYPHENS_SHIFT | number;
+        }
+        return 0;
+    }
+
+    /**
+     * The text that packed to the value, which must come from {@link #pack}.
+     */
+    public static String unpack(final long packed) {
+        long number = packed & NUMBER_MASK;
+        long hyphens = packed >>> HYPHENS_SHIFT & 0xfff;
+        String digits;
+        if ((packed & ISBN10) != 0) {
+            long check = number % 11;
+            digits = String.format("%09d", number / 11) + (check == 10 ? "X" : Long.toString(check));
+        } else {
+            digits = String.format("%013d", number);
+        }
+
+        StringBuilder text = new StringBuilder(digits.length() + Long.bitCount(hyphens));
+        for (int i = 0; i < digits.length(); i++) {
+            text.append(digits.charAt(i));
+            if ((hyphens & 1L << i) != 0) {
+                text.append('-');
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * The 13 digits without hyphens, an ISBN-10 is prefixed with 978 and given a new check digit.
+     */
+    public String isbn13() {
+        long number = packed & NUMBER_MASK;
+        if ((packed & ISBN10) == 0) {
+            return Long.toString(number);
+        }
+        long first12 = 978_000_000_000L + number / 11;
+        int sum = 0;
+        long rest = first12;
+        for (int i = 11; i >= 0; i--) {
+            sum += (int) (rest % 10) * (i % 2 == 0 ? 1 : 3);
+            rest /= 10;
+        }
+        return Long.toString(first12 * 10 + (10 - sum % 10) % 10);
+    }
+
+    @Override
+    public String toString() {
+        return unpack(packed);
+    }
+
+}
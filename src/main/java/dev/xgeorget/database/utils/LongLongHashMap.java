@@ -0,0 +1,175 @@
+package dev.xgeorget.database.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Hash map from long keys to long values with open addressing and linear probing, 16 bytes per slot and no object
+ * per mapping. Key 0 marks an empty slot and cannot be stored. Off the heap the slots live in direct buffers, which
+ * the garbage collector neither scans nor copies, they are freed once the map is unreachable. Not thread-safe.
+ */
+public final class LongLongHashMap {
+    // A direct buffer holds at most Integer.MAX_VALUE bytes
+    private static final int     MAX_CAPACITY = 1 << 27;
+
+    private static final double  LOAD_FACTOR  = 0.75;
+
+    private final boolean        offHeap;
+
+    private LongBuffer           keys;
+
+    private LongBuffer           values;
+
+    private int                  mask;
+
+    private int                  size;
+
+    public LongLongHashMap(final int expectedSize, final boolean offHeap) {
+        this.offHeap = offHeap;
+        allocate(capacityFor(expectedSize));
+    }
+
+    public long get(final long key, final long missing) {
+        // The empty slot ending the probe would otherwise match it
+        if (key == 0) {
+            return missing;
+        }
+        for (int slot = slot(key);; slot = slot + 1 & mask) {
+            long found = keys.get(slot);
+            if (found == key) {
+                return values.get(slot);
+            }
+            if (found == 0) {
+                return missing;
+            }
+        }
+    }
+
+    public boolean containsKey(final long key) {
+        if (key == 0) {
+            return false;
+        }
+        for (int slot = slot(key);; slot = slot + 1 & mask) {
+            long found = keys.get(slot);
+            if (found == key) {
+                return true;
+            }
+            if (found == 0) {
+                return false;
+            }
+        }
+    }
+
+    public void put(final long key, final long value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved for empty slots");
+        }
+        int slot = slot(key);
+        for (long found = keys.get(slot); found != 0; found = keys.get(slot)) {
+            if (found == key) {
+                values.put(slot, value);
+                return;
+            }
+            slot = slot + 1 & mask;
+        }
+        keys.put(slot, key);
+        values.put(slot, value);
+        if (++size > (mask + 1) * LOAD_FACTOR) {
+            resize();
+        }
+    }
+
+    /**
+     * @return whether the key was present
+     */
+    public boolean remove(final long key) {
+        if (key == 0) {
+            return false;
+        }
+        int slot = slot(key);
+        for (long found = keys.get(slot); found != key; found = keys.get(slot)) {
+            if (found == 0) {
+                return false;
+            }
+            slot = slot + 1 & mask;
+        }
+        // Moves back the later keys of the run that could no longer be reached across the freed slot
+        for (int next = slot + 1 & mask;; next = next + 1 & mask) {
+            long moved = keys.get(next);
+            if (moved == 0) {
+                break;
+            }
+            int home = slot(moved);
+            if ((next - home & mask) >= (next - slot & mask)) {
+                keys.put(slot, moved);
+                values.put(slot, values.get(next));
+                slot = next;
+            }
+        }
+        keys.put(slot, 0);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (int slot = 0; slot <= mask; slot++) {
+            keys.put(slot, 0);
+        }
+        size = 0;
+    }
+
+    private int slot(final long key) {
+        long hash = key * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    private void resize() {
+        if (mask + 1 == MAX_CAPACITY) {
+            throw new IllegalStateException("More than " + (long) (MAX_CAPACITY * LOAD_FACTOR) + " keys");
+        }
+        LongBuffer oldKeys = keys;
+        LongBuffer oldValues = values;
+        int oldCapacity = mask + 1;
+        allocate(oldCapacity * 2);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long key = oldKeys.get(slot);
+            if (key != 0) {
+                int target = slot(key);
+                while (keys.get(target) != 0) {
+                    target = target + 1 & mask;
+                }
+                keys.put(target, key);
+                values.put(target, oldValues.get(slot));
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = buffer(capacity);
+        values = buffer(capacity);
+        mask = capacity - 1;
+    }
+
+    private LongBuffer buffer(final int capacity) {
+        if (!offHeap) {
+            return LongBuffer.allocate(capacity);
+        }
+        return ByteBuffer.allocateDirect(capacity * Long.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asLongBuffer();
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        long minimum = (long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        if (minimum > MAX_CAPACITY) {
+            throw new IllegalArgumentException("More than " + (long) (MAX_CAPACITY * LOAD_FACTOR) + " keys");
+        }
+        return Math.max(16, Integer.highestOneBit((int) minimum - 1) << 1);
+    }
+
+}
@@ -0,0 +1,53 @@
+package dev.xgeorget.database.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes one JSON document per line, leaving flushing to the servlet output buffer.
+ */
+public final class NdjsonWriter implements Closeable {
+    private final OutputStream   outputStream;
+
+    private final SequenceWriter sequenceWriter;
+
+    private long                 written;
+
+    public NdjsonWriter(final ObjectMapper objectMapper, final OutputStream outputStream) throws IOException {
+        this.outputStream = outputStream;
+        this.sequenceWriter = objectMapper.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .withRootValueSeparator("\n")
+            .writeValues(outputStream);
+    }
+
+    /**
+     * Unchecked so it can be called from the consumer of a streaming service method.
+     */
+    public void write(final Object value) {
+        try {
+            sequenceWriter.write(value);
+            written++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        sequenceWriter.close();
+        if (written > 0) {
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+    }
+
+}
@@ -0,0 +1,11 @@
+package dev.xgeorget.database.utils;
+
+/**
+ * A conditional write whose If-Match cannot hold, answered with 412 Precondition Failed: the tag is malformed, the
+ * resource is at another version, or it does not exist.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package dev.xgeorget.database.utils;
+
+import java.util.Optional;
+
+/**
+ * Strong ETags derived from entity versions, so that an If-Match can be checked by the UPDATE itself. A book embeds
+ * its author, the author version is appended to the tag of the book and ignored when it is matched.
+ */
+public final class VersionTag {
+    private VersionTag() {
+    }
+
+    public static String of(final long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String of(final long version, final Long embeddedVersion) {
+        return embeddedVersion == null ? of(version) : "\"" + version + "." + embeddedVersion + "\"";
+    }
+
+    /**
+     * The version a conditional write must match, empty when there is no If-Match or it is {@code *}.
+     *
+     * @throws PreconditionFailedException if the header is not a single tag produced by {@link #of}, it then cannot
+     *                                     match
+     */
+    public static Optional<Long> parse(final String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim()
+            .equals("*")) {
+            return Optional.empty();
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("Not a strong entity tag: " + ifMatch);
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int separator = value.indexOf('.');
+        try {
+            return Optional.of(Long.parseLong(separator < 0 ? value : value.substring(0, separator)));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Not a version tag: " + ifMatch);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package dev.xgeorget.database.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Runs Tomcat requests and the async MVC tasks (streamed exports and bulk imports) on virtual threads. Only built by
+ * the java21 profile, and off unless {@code spring.threads.virtual.enabled=true} is given at start. That is the
+ * property Spring Boot 3.2 reads itself, 3.1 ignores it, and this class can go once the project is on 3.2.
+ *
+ * <p>
+ * Untested: the build and the tests run on Java 17 and have never compiled this source set.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    // Requests are no longer bounded by server.tomcat.threads.max, the Hikari pool is what limits JDBC concurrency
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+}
@@ -0,0 +1,17 @@
+-- Hands out ids in blocks of 50 to the pooled-lo optimizer, matches the allocationSize of AuthorEntity
+CREATE SEQUENCE author_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE authors (
+    id BIGINT NOT NULL,
+    name VARCHAR(255),
+    age INTEGER,
+    CONSTRAINT authors_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE books (
+    isbn VARCHAR(255) NOT NULL,
+    title VARCHAR(255),
+    author_id BIGINT,
+    CONSTRAINT books_pkey PRIMARY KEY (isbn),
+    CONSTRAINT books_author_id_fkey FOREIGN KEY (author_id) REFERENCES authors (id)
+);
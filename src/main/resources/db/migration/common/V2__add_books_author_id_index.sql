@@ -0,0 +1,3 @@
+-- Indexes the foreign key for author lookups and deletes, the isbn column also serves the keyset order of
+-- GET /authors/{id}/books
+CREATE INDEX IF NOT EXISTS books_author_id_isbn_idx ON books (author_id, isbn);
@@ -0,0 +1,19 @@
+-- Outbox of book and author writes, each row is appended by the transaction that made the change
+CREATE TABLE changes (
+    seq BIGINT NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id VARCHAR(255) NOT NULL,
+    operation VARCHAR(16) NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT changes_pkey PRIMARY KEY (seq)
+);
+
+-- The last assigned seq. Writers hold its row lock from their append to their commit, so sequence numbers become
+-- visible in order and a reader never skips a row that commits late.
+CREATE TABLE changes_head (
+    id INTEGER NOT NULL,
+    seq BIGINT NOT NULL,
+    CONSTRAINT changes_head_pkey PRIMARY KEY (id)
+);
+
+INSERT INTO changes_head (id, seq) VALUES (1, 0);
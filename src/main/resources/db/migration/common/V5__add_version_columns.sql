@@ -0,0 +1,4 @@
+-- Optimistic locking, every update bumps the version and a conditional write compares it
+ALTER TABLE authors ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE books ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,2 @@
+-- Postgres only, the in-memory search engine stands in on H2
+CREATE INDEX IF NOT EXISTS books_title_fts_idx ON books USING GIN (to_tsvector('simple', coalesce(title, '')));
@@ -0,0 +1,42 @@
+-- Postgres only, H2 keeps the single table. Each hash partition has its own shallow isbn index and is vacuumed on
+-- its own. Lookups on isbn are pruned to one partition, ordered scans on isbn merge the partition indexes in a
+-- Merge Append.
+--
+-- The whole table is copied in this one transaction, under an EXCLUSIVE lock that leaves books readable but blocks
+-- every write until the migration commits. At 10M+ rows that is minutes of write downtime plus a second copy of the
+-- table and its WAL, so run it in a maintenance window. Without one, the online way is to create books_partitioned
+-- ahead of time, mirror writes into it with a trigger on books, backfill in isbn ranges of a few 10k rows with
+-- INSERT ... ON CONFLICT DO NOTHING, one transaction each, and only take this lock for the final rename.
+CREATE TABLE books_partitioned (
+    isbn VARCHAR(255) NOT NULL,
+    title VARCHAR(255),
+    author_id BIGINT,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT books_partitioned_pkey PRIMARY KEY (isbn),
+    CONSTRAINT books_partitioned_author_id_fkey FOREIGN KEY (author_id) REFERENCES authors (id)
+) PARTITION BY HASH (isbn);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..31 LOOP
+        EXECUTE format('CREATE TABLE books_p%s PARTITION OF books_partitioned FOR VALUES WITH (MODULUS 32, REMAINDER %s)',
+            remainder, remainder);
+    END LOOP;
+END
+$$;
+
+-- Writes committed while the copy runs would otherwise be lost with the old table
+LOCK TABLE books IN EXCLUSIVE MODE;
+
+INSERT INTO books_partitioned (isbn, title, author_id, version)
+SELECT isbn, title, author_id, version FROM books;
+
+DROP TABLE books;
+
+ALTER TABLE books_partitioned RENAME TO books;
+ALTER TABLE books RENAME CONSTRAINT books_partitioned_pkey TO books_pkey;
+ALTER TABLE books RENAME CONSTRAINT books_partitioned_author_id_fkey TO books_author_id_fkey;
+
+-- The indexes of V2 and V3, created on every partition
+CREATE INDEX books_author_id_isbn_idx ON books (author_id, isbn);
+CREATE INDEX books_title_fts_idx ON books USING GIN (to_tsvector('simple', coalesce(title, '')));
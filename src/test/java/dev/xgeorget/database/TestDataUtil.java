@@ -43,7 +43,7 @@ public final class TestDataUtil {
 
     public static BookEntity createTestBookEntityA(final AuthorEntity author) {
         return BookEntity.builder()
-            .isbn("978-1-2345-6789-0")
+            .isbn("978-1-2345-6789-7")
             .title("The Shadow in the Attic")
             .author(author)
             .build();
@@ -51,7 +51,7 @@ public final class TestDataUtil {
 
     public static BookDto createTestBookDtoA(final AuthorDto author) {
         return BookDto.builder()
-            .isbn("978-1-2345-6789-0")
+            .isbn("978-1-2345-6789-7")
             .title("The Shadow in the Attic")
             .author(author)
             .build();
@@ -59,7 +59,7 @@ public final class TestDataUtil {
 
     public static BookEntity createTestBookB(final AuthorEntity author) {
         return BookEntity.builder()
-            .isbn("978-1-2345-6789-1")
+            .isbn("978-1-2345-6790-3")
             .title("Beyond the Horizon")
             .author(author)
             .build();
@@ -67,7 +67,7 @@ public final class TestDataUtil {
 
     public static BookEntity createTestBookC(final AuthorEntity author) {
         return BookEntity.builder()
-            .isbn("978-1-2345-6789-2")
+            .isbn("978-1-2345-6791-0")
             .title("The Last Ember")
             .author(author)
             .build();
@@ -1,5 +1,9 @@
 package dev.xgeorget.database.controllers;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
@@ -17,6 +22,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.xgeorget.database.TestDataUtil;
 import dev.xgeorget.database.domain.dto.AuthorDto;
 import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.services.BookService;
 import dev.xgeorget.database.services.impl.AuhtorServiceImpl;
 
 @SpringBootTest
@@ -27,15 +34,19 @@ public class AuthorControllerIntegrationTests {
 
     private AuhtorServiceImpl authorService;
 
+    private BookService       bookService;
+
     private MockMvc           mockMvc;
 
     private ObjectMapper      objectMapper;
 
     @Autowired
-    public AuthorControllerIntegrationTests(MockMvc mockMvc, AuhtorServiceImpl authorService) {
+    public AuthorControllerIntegrationTests(MockMvc mockMvc, AuhtorServiceImpl authorService,
+        BookService bookService) {
         this.mockMvc = mockMvc;
         this.objectMapper = new ObjectMapper();
         this.authorService = authorService;
+        this.bookService = bookService;
     }
 
     @Test
@@ -68,6 +79,33 @@ public class AuthorControllerIntegrationTests {
                 .value(80));
     }
 
+    @Test
+    public void testThatCreateAuthorsInBulkReturnsSavedAuthorsWithDistinctIds() throws Exception {
+        AuthorEntity testAuthorA = TestDataUtil.createTestAuthorA();
+        AuthorEntity testAuthorB = TestDataUtil.createTestAuthorB();
+        AuthorEntity testAuthorC = TestDataUtil.createTestAuthorC();
+        String authorsJson = objectMapper
+            .writeValueAsString(new AuthorEntity[] { testAuthorA, testAuthorB, testAuthorC });
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/authors/_bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(authorsJson))
+            .andExpect(MockMvcResultMatchers.status()
+                .isCreated())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.length()")
+                .value(3))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].name")
+                .value("Abigail Rose"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[2].name")
+                .value("Jesse A Casey"));
+
+        List<AuthorEntity> savedAuthors = authorService.findAll();
+        assertThat(savedAuthors).hasSize(3)
+            .extracting(AuthorEntity::getId)
+            .doesNotHaveDuplicates()
+            .doesNotContainNull();
+    }
+
     @Test
     public void testThatListAuthorsReturnsHttpStatus200() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/authors")
@@ -83,14 +121,60 @@ public class AuthorControllerIntegrationTests {
 
         mockMvc.perform(MockMvcRequestBuilders.get("/authors")
             .contentType(MediaType.APPLICATION_JSON))
-            .andExpect(MockMvcResultMatchers.jsonPath("$[0].id")
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id")
                 .isNumber())
-            .andExpect(MockMvcResultMatchers.jsonPath("$[0].name")
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name")
                 .value("Abigail Rose"))
-            .andExpect(MockMvcResultMatchers.jsonPath("$[0].age")
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].age")
                 .value(80));
     }
 
+    @Test
+    public void testThatListAuthorsReturnsRequestedPage() throws Exception {
+        authorService.save(TestDataUtil.createTestAuthorA());
+        authorService.save(TestDataUtil.createTestAuthorB());
+        authorService.save(TestDataUtil.createTestAuthorC());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors")
+            .param("page", "1")
+            .param("size", "2")
+            .param("sort", "name")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()")
+                .value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name")
+                .value("Thomas Cronin"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements")
+                .value(3));
+    }
+
+    @Test
+    public void testThatExportAuthorsStreamsOneJsonDocumentPerLine() throws Exception {
+        authorService.save(TestDataUtil.createTestAuthorA());
+        authorService.save(TestDataUtil.createTestAuthorB());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/authors/export"))
+            .andExpect(MockMvcResultMatchers.request()
+                .asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.content()
+                .contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], AuthorDto.class)
+            .getName()).isEqualTo("Abigail Rose");
+        assertThat(objectMapper.readValue(lines[1], AuthorDto.class)
+            .getName()).isEqualTo("Thomas Cronin");
+    }
+
     @Test
     public void testThatGetAuthorReturnsHttpStatus200WhenAuthorExists() throws Exception {
         AuthorEntity author = TestDataUtil.createTestAuthorA();
@@ -127,6 +211,124 @@ public class AuthorControllerIntegrationTests {
                 .value(80));
     }
 
+    @Test
+    public void testThatGetAuthorReturnsHttpStatus304WhenETagMatches() throws Exception {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        authorService.save(author);
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/authors/1"))
+            .andExpect(MockMvcResultMatchers.header()
+                .exists("ETag"))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/1")
+            .header("If-None-Match", etag))
+            .andExpect(MockMvcResultMatchers.status()
+                .isNotModified());
+    }
+
+    @Test
+    public void testThatPartialUpdateAuthorChangesTheETag() throws Exception {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        authorService.save(author);
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/authors/1"))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+        AuthorDto authorDto = TestDataUtil.createTestAuthorDtoA();
+        authorDto.setName("UPDATED");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/authors/1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(authorDto)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/1")
+            .header("If-None-Match", etag))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.name")
+                .value("UPDATED"));
+    }
+
+    @Test
+    public void testThatListAuthorBooksWalksOnlyTheBooksOfTheAuthor() throws Exception {
+        AuthorEntity authorA = TestDataUtil.createTestAuthorA();
+        BookEntity bookA = TestDataUtil.createTestBookEntityA(authorA);
+        bookService.createUpdateBook(bookA.getIsbn(), bookA);
+        BookEntity bookB = TestDataUtil.createTestBookB(TestDataUtil.createTestAuthorB());
+        bookService.createUpdateBook(bookB.getIsbn(), bookB);
+        BookEntity bookC = TestDataUtil.createTestBookC(bookA.getAuthor());
+        bookService.createUpdateBook(bookC.getIsbn(), bookC);
+        Long authorId = bookA.getAuthor()
+            .getId();
+
+        String firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + authorId + "/books")
+            .param("size", "1"))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn")
+                .value(bookA.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].title")
+                .value(bookA.getTitle()))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage)
+            .get("nextCursor")
+            .asText();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + authorId + "/books")
+            .param("after", nextCursor)
+            .param("size", "1"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()")
+                .value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn")
+                .value(bookC.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor")
+                .doesNotExist());
+    }
+
+    @Test
+    public void testThatListAuthorBooksReturnsHttpStatus404WhenNoAuthorExists() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/99/books"))
+            .andExpect(MockMvcResultMatchers.status()
+                .isNotFound());
+    }
+
+    @Test
+    public void testThatFullUpdateAuthorWithStaleIfMatchReturnsHttpStatus412() throws Exception {
+        AuthorEntity author = authorService.save(TestDataUtil.createTestAuthorA());
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+        AuthorDto authorDto = TestDataUtil.createTestAuthorDtoA();
+        authorDto.setName("FIRST");
+        mockMvc.perform(MockMvcRequestBuilders.put("/authors/" + author.getId())
+            .header("If-Match", etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(authorDto)))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.header()
+                .string("ETag", "\"1\""));
+
+        authorDto.setName("SECOND");
+        mockMvc.perform(MockMvcRequestBuilders.put("/authors/" + author.getId())
+            .header("If-Match", etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(authorDto)))
+            .andExpect(MockMvcResultMatchers.status()
+                .isPreconditionFailed());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.name")
+                .value("FIRST"));
+    }
+
     @Test
     public void testThatFullUpdateAuthorReturnsStatus404WhenNoAuthorExists() throws Exception {
         AuthorEntity author = TestDataUtil.createTestAuthorA();
@@ -140,6 +342,18 @@ public class AuthorControllerIntegrationTests {
                 .isNotFound());
     }
 
+    @Test
+    public void testThatFullUpdateAuthorWithAnyIfMatchReturnsStatus412WhenNoAuthorExists() throws Exception {
+        String authorJson = objectMapper.writeValueAsString(TestDataUtil.createTestAuthorDtoA());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/authors/99")
+            .header("If-Match", "*")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(authorJson))
+            .andExpect(MockMvcResultMatchers.status()
+                .isPreconditionFailed());
+    }
+
     @Test
     public void testThatFullUpdateAuthorReturnsStatus200WhenAuthorExists() throws Exception {
         AuthorEntity testAuthorEntityA = TestDataUtil.createTestAuthorA();
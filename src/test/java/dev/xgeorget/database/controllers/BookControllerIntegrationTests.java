@@ -1,22 +1,29 @@
 package dev.xgeorget.database.controllers;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.domain.dto.AuthorDto;
 import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
 import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.services.AuthorService;
 import dev.xgeorget.database.services.impl.BookServiceImpl;
 
 @SpringBootTest
@@ -24,16 +31,26 @@ import dev.xgeorget.database.services.impl.BookServiceImpl;
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @AutoConfigureMockMvc
 public class BookControllerIntegrationTests {
-    private BookServiceImpl bookService;
-    private MockMvc         mockMvc;
+    private BookServiceImpl   bookService;
+    private MockMvc           mockMvc;
+
+    private ObjectMapper      objectMapper;
+
+    private JsonResponseCache responseCache;
 
-    private ObjectMapper    objectMapper;
+    private AuthorService     authorService;
+
+    private JdbcTemplate      jdbcTemplate;
 
     @Autowired
-    public BookControllerIntegrationTests(MockMvc mockMvc, BookServiceImpl bookService) {
+    public BookControllerIntegrationTests(MockMvc mockMvc, BookServiceImpl bookService,
+        JsonResponseCache responseCache, AuthorService authorService, JdbcTemplate jdbcTemplate) {
         this.mockMvc = mockMvc;
         this.objectMapper = new ObjectMapper();
         this.bookService = bookService;
+        this.responseCache = responseCache;
+        this.authorService = authorService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Test
@@ -98,6 +115,128 @@ public class BookControllerIntegrationTests {
                 .value(bookDto.getTitle()));
     }
 
+    @Test
+    public void testThatPutBookReturnsTheETagOfTheWrittenVersion() throws Exception {
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(TestDataUtil.createTestAuthorDtoA());
+        String bookJson = objectMapper.writeValueAsString(bookDto);
+
+        String createdEtag = mockMvc.perform(MockMvcRequestBuilders.put("/books/" + bookDto.getIsbn())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson))
+            .andExpect(MockMvcResultMatchers.status()
+                .isCreated())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+        String updatedEtag = mockMvc.perform(MockMvcRequestBuilders.put("/books/" + bookDto.getIsbn())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+        assertThat(createdEtag).startsWith("\"0.");
+        assertThat(updatedEtag).startsWith("\"1.");
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + bookDto.getIsbn()))
+            .andExpect(MockMvcResultMatchers.header()
+                .string("ETag", updatedEtag));
+    }
+
+    @Test
+    public void testThatUpdateBookReturnsTheStoredAuthor() throws Exception {
+        BookEntity bookEntity = TestDataUtil.createTestBookEntityA(TestDataUtil.createTestAuthorA());
+        bookService.createUpdateBook(bookEntity.getIsbn(), bookEntity);
+
+        AuthorDto authorDto = TestDataUtil.createTestAuthorDtoA();
+        authorDto.setId(bookEntity.getAuthor()
+            .getId());
+        authorDto.setName("Someone Else");
+        authorDto.setAge(30);
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(authorDto);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/books/" + bookDto.getIsbn())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(bookDto)))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.author.id")
+                .value(authorDto.getId()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.author.name")
+                .value("Abigail Rose"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.author.age")
+                .value(80));
+    }
+
+    @Test
+    public void testThatBulkUpsertReportsCreatedUpdatedAndRejectedBooks() throws Exception {
+        BookEntity existingBook = TestDataUtil.createTestBookEntityA(null);
+        bookService.createUpdateBook(existingBook.getIsbn(), existingBook);
+
+        BookDto updatedBook = TestDataUtil.createTestBookDtoA(TestDataUtil.createTestAuthorDtoA());
+        updatedBook.setTitle("UPDATED");
+        BookDto newBook = BookDto.builder()
+            .isbn("978-1-2345-6790-3")
+            .title("Beyond the Horizon")
+            .build();
+        BookDto bookWithoutIsbn = BookDto.builder()
+            .title("No ISBN")
+            .build();
+        BookDto bookWithWrongCheckDigit = BookDto.builder()
+            .isbn("978-1-2345-6791-1")
+            .title("Wrong check digit")
+            .build();
+        String bulkJson = objectMapper.writeValueAsString(
+            new BookDto[] { updatedBook, newBook, bookWithoutIsbn, bookWithWrongCheckDigit });
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/_bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(bulkJson))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].status")
+                .value("UPDATED"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].isbn")
+                .value(newBook.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[1].status")
+                .value("CREATED"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[2].status")
+                .value("REJECTED"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[3].status")
+                .value("REJECTED"));
+
+        assertThat(bookService.findByIsbn(existingBook.getIsbn())).hasValueSatisfying(book -> {
+            assertThat(book.getTitle()).isEqualTo("UPDATED");
+            assertThat(book.getAuthor()
+                .getName()).isEqualTo("Abigail Rose");
+        });
+        assertThat(bookService.isExists(newBook.getIsbn())).isTrue();
+    }
+
+    @Test
+    public void testThatBulkUpsertStreamsNdjsonResults() throws Exception {
+        String ndjson = objectMapper.writeValueAsString(TestDataUtil.createTestBookDtoA(null)) + "\n"
+            + objectMapper.writeValueAsString(TestDataUtil.createTestBookDtoA(null)) + "\n";
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/books/_bulk")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content(ndjson))
+            .andExpect(MockMvcResultMatchers.request()
+                .asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(body.split("\n")).hasSize(2)
+            .allSatisfy(line -> assertThat(line).contains("\"status\":\"CREATED\""));
+    }
+
     @Test
     public void testThatListBooksReturnsHttpStatus200() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/books")
@@ -119,6 +258,179 @@ public class BookControllerIntegrationTests {
                 .value(book.getTitle()));
     }
 
+    @Test
+    public void testThatListBooksAfterCursorWalksAllPagesInIsbnOrder() throws Exception {
+        BookEntity bookA = TestDataUtil.createTestBookEntityA(null);
+        bookService.createUpdateBook(bookA.getIsbn(), bookA);
+        BookEntity bookB = TestDataUtil.createTestBookB(null);
+        bookService.createUpdateBook(bookB.getIsbn(), bookB);
+        BookEntity bookC = TestDataUtil.createTestBookC(null);
+        bookService.createUpdateBook(bookC.getIsbn(), bookC);
+
+        String firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/books")
+            .param("after", "")
+            .param("size", "2")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()")
+                .value(2))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn")
+                .value(bookA.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].isbn")
+                .value(bookB.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor")
+                .isString())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage)
+            .get("nextCursor")
+            .asText();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books")
+            .param("after", nextCursor)
+            .param("size", "2")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()")
+                .value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn")
+                .value(bookC.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor")
+                .doesNotExist());
+    }
+
+    @Test
+    public void testThatCreateBookReturnsHttpStatus400ForInvalidIsbn() throws Exception {
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(null);
+        String bookJson = objectMapper.writeValueAsString(bookDto);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/books/978-1-2345-6789-0")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson))
+            .andExpect(MockMvcResultMatchers.status()
+                .isBadRequest());
+        assertThat(bookService.isExists("978-1-2345-6789-0")).isFalse();
+    }
+
+    @Test
+    public void testThatListBooksAfterReturnsHttpStatus400ForMalformedCursor() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/books")
+            .param("after", "not a cursor!")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(MockMvcResultMatchers.status()
+                .isBadRequest());
+    }
+
+    @Test
+    public void testThatSearchBooksWalksRankedPages() throws Exception {
+        BookEntity bookA = TestDataUtil.createTestBookEntityA(null);
+        bookService.createUpdateBook(bookA.getIsbn(), bookA);
+        BookEntity bookB = TestDataUtil.createTestBookB(null);
+        bookService.createUpdateBook(bookB.getIsbn(), bookB);
+        BookEntity bookC = TestDataUtil.createTestBookC(null);
+        bookService.createUpdateBook(bookC.getIsbn(), bookC);
+
+        // "the" is two of the five terms of A, one of three for B and C
+        String firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/books/search")
+            .param("q", "The")
+            .param("size", "2"))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn")
+                .value(bookA.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].isbn")
+                .value(bookB.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor")
+                .isString())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage)
+            .get("nextCursor")
+            .asText();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/search")
+            .param("q", "The")
+            .param("after", nextCursor)
+            .param("size", "2"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()")
+                .value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn")
+                .value(bookC.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor")
+                .doesNotExist());
+    }
+
+    @Test
+    public void testThatSearchBooksRequiresEveryTermAndFollowsUpdates() throws Exception {
+        BookEntity bookA = TestDataUtil.createTestBookEntityA(null);
+        bookService.createUpdateBook(bookA.getIsbn(), bookA);
+        BookEntity bookB = TestDataUtil.createTestBookB(null);
+        bookService.createUpdateBook(bookB.getIsbn(), bookB);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/search")
+            .param("q", "attic, shadow"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()")
+                .value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].title")
+                .value(bookA.getTitle()));
+
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(null);
+        bookDto.setTitle("Beyond the Shadow");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + bookB.getIsbn())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(bookDto)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/search")
+            .param("q", "shadow"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()")
+                .value(2));
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/search")
+            .param("q", "horizon"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()")
+                .value(0));
+    }
+
+    @Test
+    public void testThatSearchBooksReturnsHttpStatus400ForBlankQuery() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/search")
+            .param("q", " "))
+            .andExpect(MockMvcResultMatchers.status()
+                .isBadRequest());
+    }
+
+    @Test
+    public void testThatExportBooksStreamsOneJsonDocumentPerLine() throws Exception {
+        BookEntity bookA = TestDataUtil.createTestBookEntityA(TestDataUtil.createTestAuthorA());
+        bookService.createUpdateBook(bookA.getIsbn(), bookA);
+        BookEntity bookB = TestDataUtil.createTestBookB(null);
+        bookService.createUpdateBook(bookB.getIsbn(), bookB);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/books/export"))
+            .andExpect(MockMvcResultMatchers.request()
+                .asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.content()
+                .contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        BookDto first = objectMapper.readValue(lines[0], BookDto.class);
+        assertThat(first.getIsbn()).isEqualTo(bookA.getIsbn());
+        assertThat(first.getAuthor()
+            .getName()).isEqualTo("Abigail Rose");
+        assertThat(objectMapper.readValue(lines[1], BookDto.class)
+            .getIsbn()).isEqualTo(bookB.getIsbn());
+    }
+
     @Test
     public void testThatGetBookReturnsHttpStatus200WhenBookExists() throws Exception {
         BookEntity book = TestDataUtil.createTestBookEntityA(null);
@@ -151,6 +463,169 @@ public class BookControllerIntegrationTests {
                 .value(book.getTitle()));
     }
 
+    @Test
+    public void testThatGetBookReturnsHttpStatus304WhenETagMatches() throws Exception {
+        BookEntity book = TestDataUtil.createTestBookEntityA(null);
+        bookService.createUpdateBook(book.getIsbn(), book);
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+            .andExpect(MockMvcResultMatchers.header()
+                .exists("ETag"))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn())
+            .header("If-None-Match", etag))
+            .andExpect(MockMvcResultMatchers.status()
+                .isNotModified())
+            .andExpect(MockMvcResultMatchers.header()
+                .string("ETag", etag))
+            .andExpect(MockMvcResultMatchers.content()
+                .string(""));
+    }
+
+    // A write made behind this controller stands for one made through another instance
+    @Test
+    public void testThatGetBookServesWritesFromOtherInstancesOnceTheFeedIsPolled() throws Exception {
+        BookEntity book = TestDataUtil.createTestBookEntityA(null);
+        bookService.createUpdateBook(book.getIsbn(), book);
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()));
+
+        book.setTitle("UPDATED");
+        bookService.createUpdateBook(book.getIsbn(), book);
+        responseCache.poll();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.title")
+                .value("UPDATED"));
+    }
+
+    // The second title is changed behind the feed, it is only served if that book stayed cached
+    @Test
+    public void testThatAnAuthorChangeEvictsOnlyTheBooksEmbeddingIt() throws Exception {
+        BookEntity bookA = TestDataUtil.createTestBookEntityA(TestDataUtil.createTestAuthorA());
+        bookService.createUpdateBook(bookA.getIsbn(), bookA);
+        BookEntity bookB = TestDataUtil.createTestBookB(TestDataUtil.createTestAuthorB());
+        bookService.createUpdateBook(bookB.getIsbn(), bookB);
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + bookA.getIsbn()));
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + bookB.getIsbn()));
+
+        jdbcTemplate.update("UPDATE books SET title = 'UPDATED' WHERE isbn = ?", bookB.getIsbn());
+        authorService.partialUpdate(bookA.getAuthor()
+            .getId(),
+            AuthorEntity.builder()
+                .name("UPDATED")
+                .build(),
+            null);
+        responseCache.poll();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + bookA.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.author.name")
+                .value("UPDATED"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + bookB.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.title")
+                .value(bookB.getTitle()));
+    }
+
+    @Test
+    public void testThatPartialUpdateChangesTheBookETag() throws Exception {
+        BookEntity book = TestDataUtil.createTestBookEntityA(null);
+        bookService.createUpdateBook(book.getIsbn(), book);
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(null);
+        bookDto.setTitle("UPDATED");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + book.getIsbn())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(bookDto)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn())
+            .header("If-None-Match", etag))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.title")
+                .value("UPDATED"));
+    }
+
+    @Test
+    public void testThatPartialUpdateWithStaleIfMatchReturnsHttpStatus412() throws Exception {
+        BookEntity book = TestDataUtil.createTestBookEntityA(null);
+        bookService.createUpdateBook(book.getIsbn(), book);
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+        BookDto firstUpdate = TestDataUtil.createTestBookDtoA(null);
+        firstUpdate.setTitle("FIRST");
+        String newEtag = mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + book.getIsbn())
+            .header("If-Match", etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(firstUpdate)))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+        assertThat(newEtag).isNotEqualTo(etag);
+
+        BookDto secondUpdate = TestDataUtil.createTestBookDtoA(null);
+        secondUpdate.setTitle("SECOND");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + book.getIsbn())
+            .header("If-Match", etag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(secondUpdate)))
+            .andExpect(MockMvcResultMatchers.status()
+                .isPreconditionFailed());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+            .andExpect(MockMvcResultMatchers.header()
+                .string("ETag", newEtag))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.title")
+                .value("FIRST"));
+    }
+
+    @Test
+    public void testThatConditionalPutReturnsHttpStatus412WhenNoBookExists() throws Exception {
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(null);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/books/" + bookDto.getIsbn())
+            .header("If-Match", "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(bookDto)))
+            .andExpect(MockMvcResultMatchers.status()
+                .isPreconditionFailed());
+    }
+
+    @Test
+    public void testThatPartialUpdateWithAnyIfMatchReturnsHttpStatus412WhenNoBookExists() throws Exception {
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(null);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + bookDto.getIsbn())
+            .header("If-Match", "*")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(bookDto)))
+            .andExpect(MockMvcResultMatchers.status()
+                .isPreconditionFailed());
+    }
+
+    @Test
+    public void testThatPartialUpdateWithMalformedIfMatchReturnsHttpStatus412() throws Exception {
+        BookEntity book = TestDataUtil.createTestBookEntityA(null);
+        bookService.createUpdateBook(book.getIsbn(), book);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + book.getIsbn())
+            .header("If-Match", "\"not-a-version\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(TestDataUtil.createTestBookDtoA(null))))
+            .andExpect(MockMvcResultMatchers.status()
+                .isPreconditionFailed());
+    }
+
     @Test
     public void testThatPartialUpdateReturnsHttpStatus404WhenNoBookExists() throws Exception {
         BookEntity bookEntity = TestDataUtil.createTestBookEntityA(null);
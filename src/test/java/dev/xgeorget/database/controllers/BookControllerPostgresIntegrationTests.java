@@ -0,0 +1,101 @@
+package dev.xgeorget.database.controllers;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.domain.dto.AuthorDto;
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.services.impl.BookServiceImpl;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// The single-statement upsert only runs ON CONFLICT on Postgres, H2 takes the UPDATE then INSERT path
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureMockMvc
+public class BookControllerPostgresIntegrationTests {
+    private static EmbeddedPostgres postgres;
+
+    private BookServiceImpl         bookService;
+
+    private MockMvc                 mockMvc;
+
+    private ObjectMapper            objectMapper;
+
+    @Autowired
+    public BookControllerPostgresIntegrationTests(MockMvc mockMvc, BookServiceImpl bookService) {
+        this.mockMvc = mockMvc;
+        this.objectMapper = new ObjectMapper();
+        this.bookService = bookService;
+    }
+
+    // A fresh database for each context, stopped by the shutdown hook of the server
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Test
+    public void testThatCreateBookReturnsHttpStatus201Created() throws Exception {
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(TestDataUtil.createTestAuthorDtoA());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/books/" + bookDto.getIsbn())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(bookDto)))
+            .andExpect(MockMvcResultMatchers.status()
+                .isCreated())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.title")
+                .value(bookDto.getTitle()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.author.name")
+                .value("Abigail Rose"));
+    }
+
+    @Test
+    public void testThatUpdateBookReturnsHttpStatus200WithTheStoredAuthor() throws Exception {
+        BookEntity bookEntity = TestDataUtil.createTestBookEntityA(TestDataUtil.createTestAuthorA());
+        bookService.createUpdateBook(bookEntity.getIsbn(), bookEntity);
+
+        AuthorDto authorDto = TestDataUtil.createTestAuthorDtoA();
+        authorDto.setId(bookEntity.getAuthor()
+            .getId());
+        authorDto.setName("Someone Else");
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(authorDto);
+        bookDto.setTitle("UPDATED");
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/books/" + bookDto.getIsbn())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(bookDto)))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.title")
+                .value("UPDATED"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.author.name")
+                .value("Abigail Rose"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + bookDto.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.title")
+                .value("UPDATED"));
+    }
+
+}
@@ -0,0 +1,134 @@
+package dev.xgeorget.database.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.services.AuthorService;
+import dev.xgeorget.database.services.BookService;
+import dev.xgeorget.database.services.ChangeService;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureMockMvc
+public class ChangeControllerIntegrationTests {
+
+    private MockMvc             mockMvc;
+
+    private AuthorService       authorService;
+
+    private BookService         bookService;
+
+    private ChangeService       changeService;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ChangeControllerIntegrationTests(MockMvc mockMvc, AuthorService authorService, BookService bookService,
+        ChangeService changeService, TransactionTemplate transactionTemplate) {
+        this.mockMvc = mockMvc;
+        this.authorService = authorService;
+        this.bookService = bookService;
+        this.changeService = changeService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Test
+    public void testThatListChangesReturnsWritesInCommitOrderAndInBatches() throws Exception {
+        AuthorEntity author = authorService.save(TestDataUtil.createTestAuthorA());
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.createUpdateBook(book.getIsbn(), book);
+        bookService.partialUpdate(book.getIsbn(), BookEntity.builder()
+            .title("UPDATED")
+            .build(), null);
+        bookService.delete(book.getIsbn());
+
+        MvcResult firstBatch = mockMvc.perform(MockMvcRequestBuilders.get("/changes")
+            .param("since", "0")
+            .param("size", "3"))
+            .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(firstBatch))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes.length()")
+                .value(3))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].seq")
+                .value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].entityType")
+                .value("AUTHOR"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].entityId")
+                .value(author.getId()
+                    .toString()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[1].entityType")
+                .value("BOOK"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[1].entityId")
+                .value(book.getIsbn()))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[2].operation")
+                .value("UPSERT"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.next")
+                .value(3));
+
+        MvcResult secondBatch = mockMvc.perform(MockMvcRequestBuilders.get("/changes")
+            .param("since", "3")
+            .param("size", "3"))
+            .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(secondBatch))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes.length()")
+                .value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].seq")
+                .value(4))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].operation")
+                .value("DELETE"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.next")
+                .value(4));
+    }
+
+    @Test
+    public void testThatListChangesWaitsForTheNextCommit() throws Exception {
+        MvcResult pending = mockMvc.perform(MockMvcRequestBuilders.get("/changes")
+            .param("since", "0"))
+            .andExpect(MockMvcResultMatchers.request()
+                .asyncStarted())
+            .andReturn();
+        assertThat(WebAsyncUtils.getAsyncManager(pending.getRequest())
+            .hasConcurrentResult()).isFalse();
+
+        AuthorEntity author = authorService.save(TestDataUtil.createTestAuthorB());
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(pending))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].entityType")
+                .value("AUTHOR"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.changes[0].entityId")
+                .value(author.getId()
+                    .toString()));
+    }
+
+    @Test
+    public void testThatRolledBackWritesRecordNoChange() {
+        transactionTemplate.executeWithoutResult(status -> {
+            authorService.save(TestDataUtil.createTestAuthorC());
+            status.setRollbackOnly();
+        });
+
+        assertThat(changeService.findAfter(0, 10)).isEmpty();
+    }
+
+}
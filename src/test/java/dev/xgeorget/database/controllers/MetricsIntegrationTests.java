@@ -0,0 +1,81 @@
+package dev.xgeorget.database.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.services.BookService;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=prometheus")
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class MetricsIntegrationTests {
+
+    private MockMvc     mockMvc;
+
+    private BookService bookService;
+
+    @Autowired
+    public MetricsIntegrationTests(MockMvc mockMvc, BookService bookService) {
+        this.mockMvc = mockMvc;
+        this.bookService = bookService;
+    }
+
+    @Test
+    public void testThatPrometheusEndpointExposesLayerTimingsAndStatementCounts() throws Exception {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.createUpdateBook(book.getIsbn(), book);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books"))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk());
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + book.getIsbn())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"UPDATED\"}"))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk());
+
+        String scrape = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(scrape).contains(
+            "books_layer_seconds_count{class=\"BookServiceImpl\",exception=\"none\",layer=\"service\","
+                + "method=\"createUpdateBook\",}",
+            "books_layer_seconds_bucket{class=\"BookServiceImpl\",exception=\"none\",layer=\"service\","
+                + "method=\"findAllViews\",",
+            "books_layer_seconds_count{class=\"GeneratedBookMapperImpl\",exception=\"none\",layer=\"mapper\","
+                + "method=\"mapTo\",}",
+            "books_http_sql_statements_count{method=\"GET\",uri=\"/books\",} 1.0",
+            "books_http_sql_statements_count{method=\"GET\",uri=\"/books/{isbn}\",} 1.0",
+            // The JdbcTemplate statements are counted too: the UPDATE, the sequence reservation and the outbox insert
+            "books_http_sql_statements_sum{method=\"PATCH\",uri=\"/books/{isbn}\",} 3.0",
+            "spring_data_repository_invocations_seconds_bucket{",
+            "hikaricp_connections_active{",
+            "hibernate_statements_total{");
+    }
+
+}
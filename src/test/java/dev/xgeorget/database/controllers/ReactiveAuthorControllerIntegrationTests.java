@@ -0,0 +1,114 @@
+package dev.xgeorget.database.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.domain.dto.AuthorDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureWebTestClient
+public class ReactiveAuthorControllerIntegrationTests {
+    private WebTestClient  webTestClient;
+
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveAuthorControllerIntegrationTests(WebTestClient webTestClient, DatabaseClient databaseClient) {
+        this.webTestClient = webTestClient;
+        this.databaseClient = databaseClient;
+    }
+
+    @Test
+    public void testThatGetAuthorReturnsAuthor() {
+        insertAuthor(TestDataUtil.createTestAuthorA());
+
+        webTestClient.get()
+            .uri("/authors/1")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.id")
+            .isEqualTo(1)
+            .jsonPath("$.name")
+            .isEqualTo("Abigail Rose")
+            .jsonPath("$.age")
+            .isEqualTo(80);
+    }
+
+    @Test
+    public void testThatGetAuthorReturnsHttpStatus404WhenNoAuthorExists() {
+        webTestClient.get()
+            .uri("/authors/99")
+            .exchange()
+            .expectStatus()
+            .isNotFound();
+    }
+
+    @Test
+    public void testThatListAuthorsReturnsAPage() {
+        insertAuthor(TestDataUtil.createTestAuthorA());
+        insertAuthor(TestDataUtil.createTestAuthorB());
+        insertAuthor(TestDataUtil.createTestAuthorC());
+
+        webTestClient.get()
+            .uri("/authors?size=2&sort=age,desc")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.content.length()")
+            .isEqualTo(2)
+            .jsonPath("$.content[0].name")
+            .isEqualTo("Abigail Rose")
+            .jsonPath("$.totalElements")
+            .isEqualTo(3);
+    }
+
+    @Test
+    public void testThatStreamAuthorsReturnsEveryAuthor() {
+        insertAuthor(TestDataUtil.createTestAuthorA());
+        insertAuthor(TestDataUtil.createTestAuthorB());
+
+        List<AuthorDto> authors = webTestClient.get()
+            .uri("/authors")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(AuthorDto.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertThat(authors).hasSize(2);
+    }
+
+    private void insertAuthor(AuthorEntity author) {
+        databaseClient.sql("INSERT INTO authors (id, name, age) VALUES (:id, :name, :age)")
+            .bind("id", author.getId())
+            .bind("name", author.getName())
+            .bind("age", author.getAge())
+            .then()
+            .block();
+    }
+
+}
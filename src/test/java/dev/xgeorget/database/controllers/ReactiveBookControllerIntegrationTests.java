@@ -0,0 +1,155 @@
+package dev.xgeorget.database.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureWebTestClient
+public class ReactiveBookControllerIntegrationTests {
+    private WebTestClient  webTestClient;
+
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveBookControllerIntegrationTests(WebTestClient webTestClient, DatabaseClient databaseClient) {
+        this.webTestClient = webTestClient;
+        this.databaseClient = databaseClient;
+    }
+
+    @Test
+    public void testThatGetBookReturnsBookWithItsAuthor() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        insertAuthor(author);
+        insertBook(book);
+
+        webTestClient.get()
+            .uri("/books/" + book.getIsbn())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.isbn")
+            .isEqualTo(book.getIsbn())
+            .jsonPath("$.title")
+            .isEqualTo(book.getTitle())
+            .jsonPath("$.author.name")
+            .isEqualTo(author.getName());
+    }
+
+    @Test
+    public void testThatGetBookReturnsHttpStatus404WhenNoBookExists() {
+        webTestClient.get()
+            .uri("/books/978-0-0000-0000-0")
+            .exchange()
+            .expectStatus()
+            .isNotFound();
+    }
+
+    @Test
+    public void testThatListBooksReturnsAPage() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        insertAuthor(author);
+        insertBook(TestDataUtil.createTestBookEntityA(author));
+        insertBook(TestDataUtil.createTestBookB(author));
+        insertBook(TestDataUtil.createTestBookC(author));
+
+        webTestClient.get()
+            .uri("/books?page=1&size=2&sort=isbn")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.content.length()")
+            .isEqualTo(1)
+            .jsonPath("$.content[0].isbn")
+            .isEqualTo("978-1-2345-6791-0")
+            .jsonPath("$.totalElements")
+            .isEqualTo(3);
+    }
+
+    @Test
+    public void testThatListBooksAfterCursorReturnsTheNextPage() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        insertAuthor(author);
+        insertBook(TestDataUtil.createTestBookEntityA(author));
+        insertBook(TestDataUtil.createTestBookB(author));
+        insertBook(TestDataUtil.createTestBookC(author));
+
+        webTestClient.get()
+            .uri("/books?after=&size=2")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.size")
+            .isEqualTo(2)
+            .jsonPath("$.content[1].isbn")
+            .isEqualTo("978-1-2345-6790-3")
+            .jsonPath("$.nextCursor")
+            .isNotEmpty();
+    }
+
+    @Test
+    public void testThatStreamBooksReturnsEveryBookInIsbnOrder() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        insertAuthor(author);
+        insertBook(TestDataUtil.createTestBookC(author));
+        insertBook(TestDataUtil.createTestBookEntityA(author));
+
+        List<BookDto> books = webTestClient.get()
+            .uri("/books")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(BookDto.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+        assertThat(books).extracting(BookDto::getIsbn)
+            .containsExactly("978-1-2345-6789-7", "978-1-2345-6791-0");
+    }
+
+    private void insertAuthor(AuthorEntity author) {
+        databaseClient.sql("INSERT INTO authors (id, name, age) VALUES (:id, :name, :age)")
+            .bind("id", author.getId())
+            .bind("name", author.getName())
+            .bind("age", author.getAge())
+            .then()
+            .block();
+    }
+
+    private void insertBook(BookEntity book) {
+        databaseClient.sql("INSERT INTO books (isbn, title, author_id) VALUES (:isbn, :title, :authorId)")
+            .bind("isbn", book.getIsbn())
+            .bind("title", book.getTitle())
+            .bind("authorId", book.getAuthor()
+                .getId())
+            .then()
+            .block();
+    }
+
+}
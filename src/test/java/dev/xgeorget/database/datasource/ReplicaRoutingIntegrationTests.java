@@ -0,0 +1,199 @@
+package dev.xgeorget.database.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.services.BookService;
+import dev.xgeorget.database.services.impl.BookExistenceFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+
+// The first replica cannot be reached, reads have to skip it for the second one
+@SpringBootTest(properties = {
+    "books.datasource.replicas=jdbc:h2:tcp://localhost:1/unreachable," + ReplicaRoutingIntegrationTests.REPLICA_URL,
+    "books.datasource.replica-connection-timeout=250ms" })
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@AutoConfigureMockMvc
+public class ReplicaRoutingIntegrationTests {
+    static final String         REPLICA_URL = "jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private MockMvc             mockMvc;
+
+    private BookService         bookService;
+
+    private ObjectMapper        objectMapper;
+
+    private JdbcTemplate        replica;
+
+    private JdbcTemplate        primary;
+
+    private BookExistenceFilter bookExistenceFilter;
+
+    private MeterRegistry       meterRegistry;
+
+    @Autowired
+    public ReplicaRoutingIntegrationTests(MockMvc mockMvc, BookService bookService, JdbcTemplate primary,
+        BookExistenceFilter bookExistenceFilter, MeterRegistry meterRegistry) {
+        this.mockMvc = mockMvc;
+        this.bookService = bookService;
+        this.primary = primary;
+        this.bookExistenceFilter = bookExistenceFilter;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = new ObjectMapper();
+        this.replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "password"));
+    }
+
+    // Read-only repository calls made while the application starts already go to the replica
+    @BeforeAll
+    public static void createReplica() {
+        replicaFlyway().migrate();
+    }
+
+    private static Flyway replicaFlyway() {
+        return Flyway.configure()
+            .dataSource(REPLICA_URL, "sa", "password")
+            .locations("classpath:db/migration/common")
+            .cleanDisabled(false)
+            .load();
+    }
+
+    // The replica is a database of its own, lagging behind the primary by one title
+    @BeforeEach
+    public void setUpReplica() {
+        Flyway flyway = replicaFlyway();
+        flyway.clean();
+        flyway.migrate();
+
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        replica.update("INSERT INTO authors (id, name, age) VALUES (?, ?, ?)", author.getId(), author.getName(),
+            author.getAge());
+        replica.update("INSERT INTO books (isbn, title, author_id) VALUES (?, ?, ?)", book.getIsbn(), "STALE",
+            author.getId());
+    }
+
+    @Test
+    public void testThatReadsAreServedByTheReplica() throws Exception {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.createUpdateBook(book.getIsbn(), book);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/books"))
+                .andExpect(MockMvcResultMatchers.status()
+                    .isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].title")
+                    .value("STALE"));
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.title")
+                .value("STALE"));
+    }
+
+    @Test
+    public void testThatReadsAfterAWriteOfTheSameClientAreServedByThePrimary() throws Exception {
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(TestDataUtil.createTestAuthorDtoA());
+
+        MvcResult write = mockMvc.perform(MockMvcRequestBuilders.put("/books/" + bookDto.getIsbn())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(bookDto)))
+            .andExpect(MockMvcResultMatchers.cookie()
+                .maxAge(PrimaryStickinessFilter.COOKIE, 5))
+            .andReturn();
+        Cookie sticky = write.getResponse()
+            .getCookie(PrimaryStickinessFilter.COOKIE);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books")
+            .cookie(sticky))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].title")
+                .value(bookDto.getTitle()));
+        mockMvc.perform(MockMvcRequestBuilders.get("/books"))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].title")
+                .value("STALE"));
+    }
+
+    // As if written through another instance whose change the filter has not polled yet
+    @Test
+    public void testThatStickyReadsOfBooksTheFilterHasNotSeenAreServedByThePrimary() throws Exception {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookB(author);
+        awaitFirstScan();
+        primary.update("INSERT INTO authors (id, name, age) VALUES (?, ?, ?)", author.getId(), author.getName(),
+            author.getAge());
+        primary.update("INSERT INTO books (isbn, title, author_id) VALUES (?, ?, ?)", book.getIsbn(), book.getTitle(),
+            author.getId());
+        assertThat(bookExistenceFilter.mightContain(book.getIsbn())).isFalse();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn())
+            .cookie(new Cookie(PrimaryStickinessFilter.COOKIE, "1")))
+            .andExpect(MockMvcResultMatchers.status()
+                .isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.title")
+                .value(book.getTitle()));
+    }
+
+    // Writes stick to the primary as well, but unlike reads they are not let past the filter
+    @Test
+    public void testThatAPatchOfAnUnknownIsbnIsAnsweredByTheFilter() throws Exception {
+        awaitFirstScan();
+        double absent = absentLookups();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/978-0-0000-0000-1")
+            .cookie(new Cookie(PrimaryStickinessFilter.COOKIE, "1"))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"UPDATED\"}"))
+            .andExpect(MockMvcResultMatchers.status()
+                .isNotFound());
+
+        assertThat(absentLookups()).isEqualTo(absent + 1);
+    }
+
+    private double absentLookups() {
+        return meterRegistry.get("books.isbn.filter")
+            .tag("result", "absent")
+            .counter()
+            .count();
+    }
+
+    // The filter lets every ISBN through until the scan started once the context is ready has finished
+    private void awaitFirstScan() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (bookExistenceFilter.mightContain("978-0-0000-0000-0") && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+    }
+
+}
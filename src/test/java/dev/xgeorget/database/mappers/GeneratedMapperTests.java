@@ -0,0 +1,50 @@
+package dev.xgeorget.database.mappers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.config.MapperConfig;
+import dev.xgeorget.database.domain.dto.BookDto;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.mappers.generated.GeneratedBookMapper;
+import dev.xgeorget.database.mappers.impl.BookMapperImpl;
+
+public class GeneratedMapperTests {
+    private final Mapper<BookEntity, BookDto> generatedMapper = Mappers.getMapper(GeneratedBookMapper.class);
+
+    private final Mapper<BookEntity, BookDto> modelMapper     = new BookMapperImpl(new MapperConfig().modelMapper());
+
+    @Test
+    public void testThatGeneratedMapToMatchesModelMapper() {
+        BookEntity book = TestDataUtil.createTestBookEntityA(TestDataUtil.createTestAuthorA());
+
+        BookDto result = generatedMapper.mapTo(book);
+
+        assertThat(result.getAuthor()).isNotNull();
+        assertThat(result).usingRecursiveComparison()
+            .isEqualTo(modelMapper.mapTo(book));
+    }
+
+    @Test
+    public void testThatGeneratedMapFromMatchesModelMapper() {
+        BookDto bookDto = TestDataUtil.createTestBookDtoA(TestDataUtil.createTestAuthorDtoA());
+
+        BookEntity result = generatedMapper.mapFrom(bookDto);
+
+        assertThat(result.getAuthor()).isNotNull();
+        assertThat(result).usingRecursiveComparison()
+            .isEqualTo(modelMapper.mapFrom(bookDto));
+    }
+
+    @Test
+    public void testThatGeneratedMapperHandlesMissingAuthor() {
+        BookEntity book = TestDataUtil.createTestBookEntityA(null);
+
+        assertThat(generatedMapper.mapTo(book)
+            .getAuthor()).isNull();
+    }
+
+}
@@ -66,7 +66,10 @@ public class AuthorRepositoryIntegrationTests {
 
         assertThat(result).isPresent();
         assertThat(result.get()).usingRecursiveComparison()
+            .ignoringFields("version")
             .isEqualTo(authorA);
+        assertThat(result.get()
+            .getVersion()).isEqualTo(1);
 
     }
 
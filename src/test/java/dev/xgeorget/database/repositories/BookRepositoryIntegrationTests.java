@@ -3,18 +3,28 @@ package dev.xgeorget.database.repositories;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.domain.dto.AuthorBookDto;
+import dev.xgeorget.database.domain.dto.AuthorViewDto;
+import dev.xgeorget.database.domain.dto.BookViewDto;
 import dev.xgeorget.database.domain.entities.AuthorEntity;
 import dev.xgeorget.database.domain.entities.BookEntity;
+import jakarta.persistence.EntityManagerFactory;
 
 @SpringBootTest
 @ExtendWith(SpringExtension.class)
@@ -22,9 +32,13 @@ import dev.xgeorget.database.domain.entities.BookEntity;
 public class BookRepositoryIntegrationTests {
     private BookRepository bookRepository;
 
+    private Statistics     statistics;
+
     @Autowired
-    public BookRepositoryIntegrationTests(BookRepository bookRepository) {
+    public BookRepositoryIntegrationTests(BookRepository bookRepository, EntityManagerFactory entityManagerFactory) {
         this.bookRepository = bookRepository;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
     }
 
     @Test
@@ -61,6 +75,38 @@ public class BookRepositoryIntegrationTests {
             .contains(author.getId(), author.getId(), author.getId());
     }
 
+    @Test
+    public void testThatFindAllViewsProjectsBooksAndAuthorsWithoutLoadingEntities() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        bookRepository.save(TestDataUtil.createTestBookEntityA(author));
+        bookRepository.save(TestDataUtil.createTestBookB(null));
+
+        statistics.clear();
+        Page<BookViewDto> result = bookRepository.findAllViews(PageRequest.of(0, 10, Sort.by("isbn")));
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).containsExactly(
+            new BookViewDto("978-1-2345-6789-7", "The Shadow in the Attic",
+                new AuthorViewDto(author.getId(), "Abigail Rose", 80)),
+            new BookViewDto("978-1-2345-6790-3", "Beyond the Horizon", null));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void testThatFindByAuthorAfterLoadsNoEntities() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        bookRepository.save(TestDataUtil.createTestBookEntityA(author));
+        bookRepository.save(TestDataUtil.createTestBookB(author));
+
+        statistics.clear();
+        List<AuthorBookDto> result = bookRepository.findByAuthorAfter(author.getId(), "", PageRequest.ofSize(10));
+
+        assertThat(result).extracting(AuthorBookDto::isbn)
+            .containsExactly("978-1-2345-6789-7", "978-1-2345-6790-3");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
     @Test
     public void testThatBookCanBeUpdated() {
         AuthorEntity authorA = TestDataUtil.createTestAuthorA();
@@ -74,7 +120,10 @@ public class BookRepositoryIntegrationTests {
 
         assertThat(result).isPresent();
         assertThat(result.get()).usingRecursiveComparison()
+            .ignoringFields("version")
             .isEqualTo(bookA);
+        assertThat(result.get()
+            .getVersion()).isEqualTo(1);
     }
 
     @Test
@@ -88,4 +137,21 @@ public class BookRepositoryIntegrationTests {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    public void testThatBooksPageLoadsAuthorsWithoutExtraStatements() {
+        bookRepository.save(TestDataUtil.createTestBookEntityA(TestDataUtil.createTestAuthorA()));
+        bookRepository.save(TestDataUtil.createTestBookB(TestDataUtil.createTestAuthorB()));
+        bookRepository.save(TestDataUtil.createTestBookC(TestDataUtil.createTestAuthorC()));
+
+        statistics.clear();
+        Page<BookEntity> result = bookRepository.findAllWithAuthors(PageRequest.of(0, 2, Sort.by("isbn")));
+
+        assertThat(result.getContent()).hasSize(2)
+            .allSatisfy(book -> assertThat(book.getAuthor()
+                .getName()).isNotNull());
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        // One select for the page and one for the count, none per author
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
 }
@@ -0,0 +1,360 @@
+package dev.xgeorget.database.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.xgeorget.database.TestDataUtil;
+import dev.xgeorget.database.domain.entities.AuthorEntity;
+import dev.xgeorget.database.domain.entities.BookEntity;
+import dev.xgeorget.database.services.impl.BookExistenceFilter;
+import dev.xgeorget.database.services.impl.InMemoryBookSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookServiceIntegrationTests {
+    private static final int          BOOKS = 100_000;
+
+    private BookService               bookService;
+
+    private JdbcTemplate              jdbcTemplate;
+
+    private EntityManager             entityManager;
+
+    private Statistics                statistics;
+
+    private BookExistenceFilter       bookExistenceFilter;
+
+    private InMemoryBookSearchService bookSearchService;
+
+    private TransactionTemplate       transactionTemplate;
+
+    private MeterRegistry             meterRegistry;
+
+    @Autowired
+    public BookServiceIntegrationTests(BookService bookService, JdbcTemplate jdbcTemplate,
+        EntityManager entityManager, EntityManagerFactory entityManagerFactory,
+        BookExistenceFilter bookExistenceFilter, InMemoryBookSearchService bookSearchService,
+        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.bookService = bookService;
+        this.bookExistenceFilter = bookExistenceFilter;
+        this.bookSearchService = bookSearchService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class)
+            .getStatistics();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Test
+    public void testThatFindByIsbnIsServedFromTheSecondLevelCache() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.upsert(book.getIsbn(), book);
+        bookService.findByIsbn(book.getIsbn());
+
+        statistics.clear();
+        Optional<BookEntity> result = bookService.findByIsbn(book.getIsbn());
+
+        assertThat(result).isPresent();
+        assertThat(result.get()
+            .getAuthor()
+            .getName()).isEqualTo(author.getName());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testThatPartialUpdateWritesOnlyTheSuppliedFieldsWithoutLoadingTheBook() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.upsert(book.getIsbn(), book);
+        bookService.findByIsbn(book.getIsbn());
+
+        statistics.clear();
+        Optional<BookEntity> result = bookService.partialUpdate(book.getIsbn(), BookEntity.builder()
+            .title("UPDATED")
+            .build(), null);
+
+        assertThat(result).isPresent();
+        assertThat(result.get()
+            .getTitle()).isEqualTo("UPDATED");
+        assertThat(result.get()
+            .getVersion()).isEqualTo(1);
+        assertThat(result.get()
+            .getAuthor()
+            .getName()).isEqualTo(author.getName());
+        // Only the author is read, from the second-level cache
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(bookService.findByIsbn(book.getIsbn())
+            .get()
+            .getTitle()).isEqualTo("UPDATED");
+    }
+
+    @Test
+    public void testThatPartialUpdateOfAMissingBookReturnsEmpty() {
+        Optional<BookEntity> result = bookService.partialUpdate("978-0-0000-0000-0", BookEntity.builder()
+            .title("UPDATED")
+            .build(), null);
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    public void testThatLookupsOfUnwrittenIsbnsPrepareNoStatements() throws InterruptedException {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.upsert(book.getIsbn(), book);
+        awaitFirstScan();
+
+        statistics.clear();
+        assertThat(bookService.findByIsbn("978-0-0000-0000-0")).isEmpty();
+        assertThat(bookService.isExists("978-0-0000-0000-0")).isFalse();
+        assertThat(bookService.partialUpdate("978-0-0000-0000-0", BookEntity.builder()
+            .title("UPDATED")
+            .build(), null)).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(bookService.isExists(book.getIsbn())).isTrue();
+    }
+
+    // A deleted book stays in the filter until the next rebuild, its lookups are the false positives
+    @Test
+    public void testThatFilterLookupsAreCountedByResult() throws InterruptedException {
+        awaitFirstScan();
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.upsert(book.getIsbn(), book);
+        BookEntity deleted = TestDataUtil.createTestBookB(TestDataUtil.createTestAuthorB());
+        bookService.upsert(deleted.getIsbn(), deleted);
+        bookService.delete(deleted.getIsbn());
+        double absent = filterLookups("absent");
+        double present = filterLookups("present");
+        double falsePositive = filterLookups("false_positive");
+
+        assertThat(bookService.findByIsbn("978-0-0000-0000-1")).isEmpty();
+        assertThat(bookService.findByIsbn(book.getIsbn())).isPresent();
+        assertThat(bookService.isExists(deleted.getIsbn())).isFalse();
+
+        assertThat(filterLookups("absent")).isEqualTo(absent + 1);
+        assertThat(filterLookups("present")).isEqualTo(present + 1);
+        assertThat(filterLookups("false_positive")).isEqualTo(falsePositive + 1);
+    }
+
+    @Test
+    public void testThatBooksInsertedBehindTheServicesAreFoundAfterARebuild() throws InterruptedException {
+        awaitFirstScan();
+        jdbcTemplate.update("INSERT INTO authors (id, name, age) VALUES (1, 'Abigail Rose', 80)");
+        jdbcTemplate.update("INSERT INTO books (isbn, title, author_id) VALUES ('978-1-2345-6789-7', 'Title', 1)");
+        assertThat(bookService.findByIsbn("978-1-2345-6789-7")).isEmpty();
+
+        bookExistenceFilter.rebuild();
+
+        assertThat(bookService.findByIsbn("978-1-2345-6789-7")).isPresent();
+    }
+
+    @Test
+    public void testThatUpsertTellsInsertsFromUpdatesAndKeepsTheStoredAuthor() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        assertThat(bookService.upsert(book.getIsbn(), book)).isTrue();
+        assertThat(book.getVersion()).isZero();
+
+        BookEntity update = TestDataUtil.createTestBookEntityA(AuthorEntity.builder()
+            .id(book.getAuthor()
+                .getId())
+            .name("Someone Else")
+            .build());
+        update.setTitle("UPDATED");
+
+        assertThat(bookService.upsert(update.getIsbn(), update)).isFalse();
+        assertThat(update.getVersion()).isEqualTo(1);
+        assertThat(update.getAuthor()
+            .getName()).isEqualTo(author.getName());
+        BookEntity stored = bookService.findByIsbn(book.getIsbn())
+            .get();
+        assertThat(stored.getTitle()).isEqualTo("UPDATED");
+        assertThat(stored.getAuthor()
+            .getName()).isEqualTo(author.getName());
+    }
+
+    @Test
+    public void testThatUpsertOfABookWithAKnownAuthorDoesNotLookTheAuthorUp() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.upsert(book.getIsbn(), book);
+        BookEntity update = TestDataUtil.createTestBookEntityA(AuthorEntity.builder()
+            .id(book.getAuthor()
+                .getId())
+            .build());
+        update.setTitle("UPDATED");
+
+        statistics.clear();
+        assertThat(bookService.upsert(update.getIsbn(), update)).isFalse();
+
+        // The upsert itself checks the author, which is then read from the second-level cache
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(update.getAuthor()
+            .getName()).isEqualTo(author.getName());
+    }
+
+    @Test
+    public void testThatTheSearchIndexIsRebuiltFromOneStatement() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity bookA = TestDataUtil.createTestBookEntityA(author);
+        bookService.upsert(bookA.getIsbn(), bookA);
+        BookEntity bookB = TestDataUtil.createTestBookB(TestDataUtil.createTestAuthorB());
+        bookService.upsert(bookB.getIsbn(), bookB);
+        jdbcTemplate.update("UPDATE books SET title = 'The Attic Behind' WHERE isbn = ?", bookB.getIsbn());
+
+        statistics.clear();
+        bookSearchService.rebuild();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(bookSearchService.search("attic", Float.POSITIVE_INFINITY, "", 10)).hasSize(2);
+    }
+
+    @Test
+    public void testThatReadsDuringAnUpdateDoNotCacheTheOldBook() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.upsert(book.getIsbn(), book);
+        entityManager.getEntityManagerFactory()
+            .getCache()
+            .evictAll();
+
+        statistics.clear();
+        AtomicReference<String> titleDuringUpdate = new AtomicReference<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            bookService.partialUpdate(book.getIsbn(), BookEntity.builder()
+                .title("UPDATED")
+                .build(), null);
+            Thread reader = new Thread(() -> titleDuringUpdate.set(bookService.findByIsbn(book.getIsbn())
+                .get()
+                .getTitle()));
+            reader.start();
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(titleDuringUpdate.get()).isEqualTo(book.getTitle());
+        assertThat(statistics.getEntityStatistics(BookEntity.class.getName())
+            .getCachePutCount()).isZero();
+        assertThat(bookService.findByIsbn(book.getIsbn())
+            .get()
+            .getTitle()).isEqualTo("UPDATED");
+    }
+
+    @Test
+    public void testThatUpsertEvictsTheCachedBook() {
+        AuthorEntity author = TestDataUtil.createTestAuthorA();
+        BookEntity book = TestDataUtil.createTestBookEntityA(author);
+        bookService.upsert(book.getIsbn(), book);
+        bookService.findByIsbn(book.getIsbn());
+
+        book.setTitle("UPDATED");
+        bookService.upsert(book.getIsbn(), book);
+
+        assertThat(bookService.findByIsbn(book.getIsbn())
+            .get()
+            .getTitle()).isEqualTo("UPDATED");
+    }
+
+    @Test
+    public void testThatBulkUpsertBatchesStatements() {
+        List<BookEntity> books = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            books.add(BookEntity.builder()
+                .isbn(String.format("978-%010d", i))
+                .title("Title " + i)
+                .build());
+        }
+        bookService.bulkUpsert(books.subList(0, 50));
+        books.subList(0, 50)
+            .forEach(book -> book.setTitle("UPDATED"));
+
+        statistics.clear();
+        Map<String, Boolean> created = bookService.bulkUpsert(books);
+
+        assertThat(created).hasSize(250);
+        assertThat(created.values()
+            .stream()
+            .filter(Boolean::booleanValue)).hasSize(200);
+        // One SELECT for the existing books, then batches of 100 rows
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(200);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(50);
+    }
+
+    @Test
+    public void testThatStreamAllKeepsThePersistenceContextBounded() {
+        jdbcTemplate.update("INSERT INTO authors (id, name, age) VALUES (1, 'Abigail Rose', 80)");
+        List<Object[]> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Object[] { String.format("978-%010d", i), "Title " + i });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO books (isbn, title, author_id) VALUES (?, ?, 1)", books);
+
+        AtomicInteger streamed = new AtomicInteger();
+        AtomicInteger maxManaged = new AtomicInteger();
+        AtomicReference<String> previousIsbn = new AtomicReference<>("");
+        bookService.streamAll(book -> {
+            assertThat(book.getIsbn()).isGreaterThan(previousIsbn.get());
+            assertThat(book.getAuthor()
+                .getName()).isEqualTo("Abigail Rose");
+            previousIsbn.set(book.getIsbn());
+            streamed.incrementAndGet();
+            // The shared EntityManager is bound to the streaming transaction on this thread
+            maxManaged.accumulateAndGet(entityManager.unwrap(Session.class)
+                .getStatistics()
+                .getEntityCount(), Math::max);
+        });
+
+        assertThat(streamed.get()).isEqualTo(BOOKS);
+        // One clear interval of books plus their author, independent of the number of rows
+        assertThat(maxManaged.get()).isLessThanOrEqualTo(501);
+    }
+
+    private double filterLookups(String result) {
+        return meterRegistry.get("books.isbn.filter")
+            .tag("result", result)
+            .counter()
+            .count();
+    }
+
+    // The filter lets every ISBN through until the scan started once the context is ready has finished
+    private void awaitFirstScan() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (bookExistenceFilter.mightContain("978-0-0000-0000-0") && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package dev.xgeorget.database.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+
+public class IsbnTests {
+
+    @Test
+    public void testThatPackedIsbnsUnpackToTheSameText() {
+        for (String text : new String[] { "978-1-2345-6789-7", "9781234567897", "979-10-90636-07-1",
+            "0-306-40615-2", "0306406152", "0-8044-2957-X" }) {
+            assertThat(Isbn.parse(text)
+                .toString()).isEqualTo(text);
+        }
+        assertThat(Isbn.pack("978-1-2345-6789-7")).isNotEqualTo(Isbn.pack("9781234567897"));
+    }
+
+    @Test
+    public void testThatIsbn10AndIsbn13NormalizeToTheSameDigits() {
+        assertThat(Isbn.parse("0-306-40615-2")
+            .isbn13()).isEqualTo("9780306406157");
+        assertThat(Isbn.parse("978-0-306-40615-7")
+            .isbn13()).isEqualTo("9780306406157");
+        assertThat(Isbn.parse("0-8044-2957-X")
+            .isbn13()).isEqualTo("9780804429573");
+    }
+
+    @Test
+    public void testThatInvalidIsbnsAreRejected() {
+        for (String text : new String[] { "978-1-2345-6789-0", "0-306-40615-3", "977-1-2345-6789-8", "978--1234567897",
+            "-9781234567897", "9781234567897-", "978123456789", "97812345678970", "X-306-40615-2", "0-306-40615-x",
+            "" }) {
+            assertThat(Isbn.isValid(text)).as(text)
+                .isFalse();
+        }
+        assertThat(Isbn.isValid(null)).isFalse();
+        assertThatIllegalArgumentException().isThrownBy(() -> Isbn.parse("978-1-2345-6789-0"));
+        assertThatIllegalArgumentException().isThrownBy(() -> new Isbn(42));
+    }
+
+}
@@ -0,0 +1,49 @@
+package dev.xgeorget.database.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class LongLongHashMapTests {
+
+    @Test
+    public void testThatTheMapMatchesAHashMapOnAndOffTheHeap() {
+        for (boolean offHeap : new boolean[] { false, true }) {
+            LongLongHashMap map = new LongLongHashMap(16, offHeap);
+            Map<Long, Long> expected = new HashMap<>();
+            SplittableRandom random = new SplittableRandom(42);
+            // Few distinct keys, so that removals break up the probe runs and the map grows several times
+            for (int i = 0; i < 100_000; i++) {
+                long key = random.nextLong(1, 5_000);
+                if (random.nextInt(3) == 0) {
+                    assertThat(map.remove(key)).isEqualTo(expected.remove(key) != null);
+                } else {
+                    map.put(key, i);
+                    expected.put(key, (long) i);
+                }
+            }
+
+            assertThat(map.size()).isEqualTo(expected.size());
+            for (long key = 1; key < 5_000; key++) {
+                assertThat(map.get(key, -1)).isEqualTo(expected.getOrDefault(key, -1L));
+            }
+        }
+    }
+
+    @Test
+    public void testThatKeyZeroIsNeverFound() {
+        LongLongHashMap map = new LongLongHashMap(16, false);
+        map.put(1, 10);
+
+        assertThat(map.get(0, -1)).isEqualTo(-1);
+        assertThat(map.containsKey(0)).isFalse();
+        assertThat(map.remove(0)).isFalse();
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(map.get(1, -1)).isEqualTo(10);
+    }
+
+}